@@ -0,0 +1,50 @@
+package com.example.backend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// ActivityLog.getTimestamp() runs once per row of every log response. It builds a new
+// DateTimeFormatter per call; sharedFormatter is the same formatting with one formatter,
+// kept as the reference point for that cost. Needs no database.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ActivityLogTimestampBenchmark {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final ActivityLog[] logs = new ActivityLog[1024];
+    private final LocalDateTime[] times = new LocalDateTime[logs.length];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < logs.length; i++) {
+            times[i] = start.plusMinutes(i * 37L);
+            logs[i] = new ActivityLog("user" + i, "User Logged In", "Student");
+            logs[i].setTimestamp(times[i]);
+        }
+    }
+
+    @Benchmark
+    public String getTimestamp() {
+        next = (next + 1) & (logs.length - 1);
+        return logs[next].getTimestamp();
+    }
+
+    @Benchmark
+    public String sharedFormatter() {
+        next = (next + 1) & (logs.length - 1);
+        return times[next].format(FORMAT);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The admin log screen: the old "everything, newest first" endpoint against one keyset page.
+// The full load is seconds per call with a million rows, hence the long iterations.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+public class AdminLogsBenchmark {
+
+    private AdminController adminController;
+
+    @Setup
+    public void setUp() {
+        adminController = BenchmarkData.context().getBean(AdminController.class);
+    }
+
+    @Benchmark
+    public List<ActivityLog> allLogs() {
+        return adminController.getLogs();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> firstLogPage() {
+        return adminController.getLogPage(null, 50);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.backend;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// The application (no web server) on in-memory H2 with production-like volumes, started once
+// per benchmark JVM and shared by every benchmark class in it. Volumes can be lowered with
+// -Pbench.users=... etc. (see build.gradle); the defaults are what a busy term looks like.
+//
+// Rows go in through plain JDBC batches with explicit ids, which takes seconds instead of the
+// minutes JPA would need for a million log rows; id_generators is moved past them afterwards.
+final class BenchmarkData {
+
+    static final String[] TYPES = {"pdf", "video", "ppt", "quiz"};
+    static final int MODULES_PER_SUBJECT = 5;
+
+    static final int USERS = Integer.getInteger("bench.users", 10_000);
+    static final int COURSES = Integer.getInteger("bench.courses", 20);
+    static final int SUBJECTS = Integer.getInteger("bench.subjects", 500);
+    static final int MATERIALS = Integer.getInteger("bench.materials", 50_000);
+    static final int LOGS = Integer.getInteger("bench.logs", 1_000_000);
+
+    private static final int BATCH = 5_000;
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkData() {}
+
+    static synchronized ConfigurableApplicationContext context() {
+        if (context == null) {
+            context = new SpringApplicationBuilder(BackendApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("jmh")
+                    .run();
+            context.registerShutdownHook();
+            seed(context.getBean(JdbcTemplate.class));
+        }
+        return context;
+    }
+
+    static String courseId(int i) { return "COURSE" + (i % COURSES); }
+    static String subjectCode(int i) { return "SUBJ" + (i % SUBJECTS); }
+
+    // ==========================================
+    // SEEDING
+    // ==========================================
+    private static void seed(JdbcTemplate jdbc) {
+        long start = System.nanoTime();
+        Random random = new Random(42); // same data every run
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            rows.add(new Object[]{courseId(i), "Course " + i, "Description of course " + i, "#3b82f6", "active",
+                    "/api/files/course-" + i + ".jpg", null});
+        }
+        insert(jdbc, "INSERT INTO courses (id, title, description, theme_color, status, image, image_srcset) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        for (int i = 0; i < SUBJECTS; i++) {
+            rows.add(new Object[]{subjectCode(i), "Subject " + i, "#22c55e", courseId(i), 1 + i % 4, 1 + i % 2, "active"});
+        }
+        insert(jdbc, "INSERT INTO subjects (code, title, color, course_id, year_level, semester, status) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        long moduleId = 0;
+        for (int i = 0; i < SUBJECTS; i++) {
+            for (int n = 1; n <= MODULES_PER_SUBJECT; n++) {
+                rows.add(new Object[]{++moduleId, "Module " + n, "Module " + n + " of subject " + i, n, "active", subjectCode(i)});
+            }
+        }
+        insert(jdbc, "INSERT INTO modules (id, title, description, module_number, status, subject_code) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        for (int i = 1; i <= MATERIALS; i++) {
+            int subject = random.nextInt(SUBJECTS);
+            long module = (long) subject * MODULES_PER_SUBJECT + 1 + random.nextInt(MODULES_PER_SUBJECT);
+            String type = TYPES[random.nextInt(TYPES.length)];
+            rows.add(new Object[]{(long) i, "Lesson " + i, type, "/api/files/lesson-" + i + "." + type, subjectCode(subject), module, null});
+            flushIfFull(jdbc, "INSERT INTO learning_materials (id, title, type, file_path, subject_code, module_id, content_hash) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+        insert(jdbc, "INSERT INTO learning_materials (id, title, type, file_path, subject_code, module_id, content_hash) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        for (int i = 1; i <= USERS; i++) {
+            // Roughly one professor per 50 students, a handful of admins
+            String role = i % 500 == 0 ? "admin" : i % 50 == 0 ? "professor" : "student";
+            rows.add(new Object[]{(long) i, "user" + i, "password" + i, role, courseId(i), null, null});
+            flushIfFull(jdbc, "INSERT INTO users (id, username, password, role, course_id, profile_image, profile_image_srcset) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+        insert(jdbc, "INSERT INTO users (id, username, password, role, course_id, profile_image, profile_image_srcset) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        // A year of activity, newest last
+        LocalDateTime first = LocalDateTime.now().minusDays(365);
+        long step = Math.max(1, 365L * 24 * 3600 / Math.max(1, LOGS));
+        String[] actions = {"User Logged In", "Lesson Uploaded", "Quiz Created", "Subject Updated"};
+        for (int i = 1; i <= LOGS; i++) {
+            rows.add(new Object[]{(long) i, "user" + (1 + random.nextInt(USERS)), actions[random.nextInt(actions.length)],
+                    "Student", Timestamp.valueOf(first.plusSeconds(i * step))});
+            flushIfFull(jdbc, "INSERT INTO activity_logs (id, username, action, role, timestamp) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+        insert(jdbc, "INSERT INTO activity_logs (id, username, action, role, timestamp) VALUES (?, ?, ?, ?, ?)", rows);
+
+        // Anything the benchmarks insert through JPA gets ids after the seeded ones
+        nextId(jdbc, "modules", moduleId + 1);
+        nextId(jdbc, "learning_materials", MATERIALS + 1L);
+        nextId(jdbc, "users", USERS + 1L);
+        nextId(jdbc, "activity_logs", LOGS + 1L);
+
+        System.out.printf("Seeded %d users, %d courses, %d subjects, %d modules, %d materials, %d logs in %d ms%n",
+                USERS, COURSES, SUBJECTS, moduleId, MATERIALS, LOGS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (rows.size() >= BATCH) insert(jdbc, sql, rows);
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(sql, rows);
+        rows.clear();
+    }
+
+    private static void nextId(JdbcTemplate jdbc, String name, long next) {
+        jdbc.update("MERGE INTO id_generators (name, next_val) KEY (name) VALUES (?, ?)", name, next);
+    }
+}
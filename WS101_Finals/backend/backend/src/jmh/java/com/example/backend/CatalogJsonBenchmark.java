@@ -0,0 +1,53 @@
+package com.example.backend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writing the course and subject lists to JSON with the application's own ObjectMapper,
+// i.e. what every catalog response pays after the (usually cached) lookup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<Course> courses;
+    private List<Subject> subjects;
+    private List<Subject> courseSubjects;
+
+    @Setup
+    public void setUp() {
+        ApplicationContext context = BenchmarkData.context();
+        objectMapper = context.getBean(ObjectMapper.class);
+        courses = context.getBean(CourseRepository.class).findAll();
+        subjects = context.getBean(SubjectRepository.class).findAll();
+        CatalogService catalogService = context.getBean(CatalogService.class);
+        String courseId = BenchmarkData.courseId(0);
+        courseSubjects = catalogService.getSubjectsByCourse(courseId, catalogService.version(CatalogService.subjectsOf(courseId)));
+    }
+
+    @Benchmark
+    public byte[] courses() {
+        return objectMapper.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public byte[] allSubjects() {
+        return objectMapper.writeValueAsBytes(subjects);
+    }
+
+    @Benchmark
+    public byte[] subjectsOfCourse() {
+        return objectMapper.writeValueAsBytes(courseSubjects);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The lesson lookups behind the student subject page and the professor dashboard.
+// Each call moves on to the next subject/course so the numbers aren't one hot row.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaterialQueryBenchmark {
+
+    private StudentController studentController;
+    private ProfessorController professorController;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ApplicationContext context = BenchmarkData.context();
+        studentController = context.getBean(StudentController.class);
+        professorController = context.getBean(ProfessorController.class);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & Integer.MAX_VALUE;
+        return next;
+    }
+
+    @Benchmark
+    public List<LearningMaterial> studentMaterialsByType() {
+        int i = nextIndex();
+        return studentController.getMaterials(BenchmarkData.subjectCode(i), BenchmarkData.TYPES[i % BenchmarkData.TYPES.length], null);
+    }
+
+    @Benchmark
+    public List<LearningMaterial> studentMaterialsByModule() {
+        int i = nextIndex();
+        int subject = i % BenchmarkData.SUBJECTS;
+        long moduleId = (long) subject * BenchmarkData.MODULES_PER_SUBJECT + 1 + i % BenchmarkData.MODULES_PER_SUBJECT;
+        return studentController.getMaterials(BenchmarkData.subjectCode(subject), null, moduleId);
+    }
+
+    @Benchmark
+    public List<LearningMaterial> professorMaterialsBySubject() {
+        return professorController.getAllMaterials(BenchmarkData.subjectCode(nextIndex()), null);
+    }
+
+    // Every lesson of every subject of a course (~2500 rows with the default volumes)
+    @Benchmark
+    public List<LearningMaterial> professorMaterialsByCourse() {
+        return professorController.getAllMaterials(null, BenchmarkData.courseId(nextIndex()));
+    }
+
+    // In memory after the first call per course (see CourseStatsService)
+    @Benchmark
+    public Map<String, Long> professorStats() {
+        return professorController.getStats(BenchmarkData.courseId(nextIndex()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Latencies per scenario step. Calls that started during the warm-up aren't recorded.
+// Every sample is kept (a long each), so percentiles are exact; a two-minute run is a few MB.
+final class LatencyRecorder {
+
+    // Every HTTP call of the run, whatever the step (sorts first in the report)
+    static final String ALL_REQUESTS = "* all requests";
+
+    private static final class Series {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long duration, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = duration;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() { return errors; }
+    }
+
+    private final long recordFrom;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    LatencyRecorder(long recordFrom) {
+        this.recordFrom = recordFrom;
+    }
+
+    void record(String step, long startNanos, long endNanos, boolean ok) {
+        if (startNanos < recordFrom) return;
+        series.computeIfAbsent(step, k -> new Series()).add(endNanos - startNanos, ok);
+    }
+
+    // ==========================================
+    // REPORT
+    // ==========================================
+    // One line per step: count, errors, throughput over the measured seconds, p50/p95/p99/max in ms
+    List<String[]> rows(double seconds) {
+        List<String[]> rows = new ArrayList<>();
+        for (String step : new TreeMap<>(series).keySet()) rows.add(row(step, seconds));
+        return rows;
+    }
+
+    String[] row(String step, double seconds) {
+        Series s = series.getOrDefault(step, new Series());
+        long[] sorted = s.sorted();
+        long errors = s.errors();
+        long count = sorted.length + errors;
+        return new String[]{
+                step,
+                String.valueOf(count),
+                String.valueOf(errors),
+                format(count / seconds),
+                millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])
+        };
+    }
+
+    void print(double seconds) {
+        print("step", rows(seconds));
+    }
+
+    static void print(String firstColumn, List<String[]> rows) {
+        String line = "%-42s %8s %7s %9s %9s %9s %9s %9s%n";
+        System.out.printf(line, firstColumn, "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String[] row : rows) System.out.printf(line, (Object[]) row);
+    }
+
+    Path writeCsv(Path dir, String name, double seconds) throws IOException {
+        return writeCsv(dir, name, "step", rows(seconds));
+    }
+
+    static Path writeCsv(Path dir, String name, String firstColumn, List<String[]> rows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(firstColumn + ",count,errors,req_per_s,p50_ms,p95_ms,p99_ms,max_ms");
+        for (String[] row : rows) lines.add(String.join(",", row));
+        Files.createDirectories(dir);
+        return Files.write(dir.resolve(name), lines);
+    }
+
+    // Nearest-rank percentile of a sorted array
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static String millis(long nanos) { return format(nanos / 1_000_000.0); }
+
+    private static String format(double value) { return String.format(Locale.ROOT, "%.1f", value); }
+}
@@ -0,0 +1,121 @@
+package com.example.backend;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Load test entry point (./gradlew loadTest, settings in build.gradle). Starts the backend on a
+// random port, seeds it (LoadTestData), then runs a closed model: loadtest.users simulated people,
+// each on a virtual thread, repeatedly picking a scenario by the configured mix and pausing
+// loadtest.think-ms (+/- 50%) in between. The first loadtest.warmup seconds ramp the users up
+// and aren't measured. Same seed, same choices, so runs are comparable.
+public final class LoadTest {
+
+    record Settings(int users, Duration warmup, Duration duration, long thinkMs, String mix, boolean mysql) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.users", 200),
+                    Duration.ofSeconds(Long.getLong("loadtest.warmup", 20)),
+                    Duration.ofSeconds(Long.getLong("loadtest.duration", 120)),
+                    Long.getLong("loadtest.think-ms", 500),
+                    System.getProperty("loadtest.mix", "student:70,professor:20,admin:10"),
+                    "mysql".equalsIgnoreCase(System.getProperty("loadtest.db", "h2")));
+        }
+
+        Settings withMix(String mix) {
+            return new Settings(users, warmup, duration, thinkMs, mix, mysql);
+        }
+
+        double seconds() { return duration.toNanos() / 1e9; }
+    }
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        LatencyRecorder recorder = run(settings, args);
+
+        recorder.print(settings.seconds());
+        String name = "loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv";
+        System.out.println("Report written to " + recorder.writeCsv(reportDir(), name, settings.seconds()));
+    }
+
+    static Path reportDir() {
+        return Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+    }
+
+    // Boots a fresh backend (args go to Spring, e.g. --spring.threads.virtual.enabled=true),
+    // runs the load against it and shuts it down again
+    static LatencyRecorder run(Settings settings, String... args) throws Exception {
+        List<String> mix = mix(settings.mix());
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(settings.mysql() ? new String[]{"loadtest"} : new String[]{"loadtest", "loadtest-h2"})
+                .run(args);
+        try {
+            LoadTestData data = LoadTestData.prepare(context);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            boolean virtual = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+            System.out.printf("%d users for %ds after %ds warm-up against %s (%s, %s threads), mix %s%n",
+                    settings.users(), settings.duration().toSeconds(), settings.warmup().toSeconds(), baseUrl,
+                    settings.mysql() ? "MySQL" : "H2", virtual ? "virtual" : "platform", settings.mix());
+
+            long start = System.nanoTime();
+            long recordFrom = start + settings.warmup().toNanos();
+            long end = recordFrom + settings.duration().toNanos();
+            LatencyRecorder recorder = new LatencyRecorder(recordFrom);
+
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient client = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .connectTimeout(Duration.ofSeconds(5))
+                         .executor(clientThreads)
+                         .build();
+                 ExecutorService people = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < settings.users(); i++) {
+                    long seed = i;
+                    // Spread the arrivals over the warm-up instead of all at once
+                    long delayMs = settings.warmup().toMillis() * i / Math.max(1, settings.users());
+                    long thinkMs = settings.thinkMs();
+                    people.submit(() -> {
+                        Random random = new Random(seed);
+                        Scenarios scenarios = new Scenarios(client, baseUrl, data, recorder, objectMapper, random);
+                        Scenarios.sleep(delayMs);
+                        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                            scenarios.run(mix.get(random.nextInt(mix.size())));
+                            if (thinkMs > 0) Scenarios.sleep(thinkMs / 2 + random.nextLong(thinkMs + 1));
+                        }
+                    });
+                }
+            } // waits for everyone to finish their last scenario
+            return recorder;
+        } finally {
+            context.close();
+        }
+    }
+
+    // "student:70,professor:20,admin:10" -> 100 entries to pick from at random
+    static List<String> mix(String spec) {
+        List<String> mix = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) mix.add(parts[0].trim());
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("loadtest.mix is empty");
+        return mix;
+    }
+}
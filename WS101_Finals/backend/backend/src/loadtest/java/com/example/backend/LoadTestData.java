@@ -0,0 +1,140 @@
+package com.example.backend;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// The courses, subjects, modules, lessons and accounts the load test works with. Everything it
+// creates is prefixed ("LT" codes, "lt-" usernames) so it can share a local MySQL with other
+// data; when the rows are already there (a second run on MySQL) they are reused, not re-added.
+// Plain SQL with ids after the current maximum, so it works on H2 and MySQL alike.
+final class LoadTestData {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final int COURSES = Integer.getInteger("loadtest.courses", 10);
+    private static final int SUBJECTS_PER_COURSE = Integer.getInteger("loadtest.subjects-per-course", 10);
+    private static final int MODULES_PER_SUBJECT = Integer.getInteger("loadtest.modules-per-subject", 5);
+    private static final int MATERIALS_PER_MODULE = Integer.getInteger("loadtest.materials-per-module", 20);
+    private static final int STUDENTS = Integer.getInteger("loadtest.students", 2000);
+    private static final int PROFESSORS = Integer.getInteger("loadtest.professors", 40);
+    private static final int ADMINS = 2;
+
+    private static final String[] TYPES = {"pdf", "video", "ppt"};
+
+    final List<String> courses = new ArrayList<>();
+    final Map<String, List<String>> subjectsByCourse = new HashMap<>();
+    final Map<String, List<Long>> modulesBySubject = new HashMap<>();
+    final Map<String, List<String>> usernamesByRole = new HashMap<>();
+
+    private LoadTestData() {}
+
+    static LoadTestData prepare(ApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM courses WHERE id = 'LT0'", Integer.class);
+        if (existing == null || existing == 0) {
+            seed(jdbc, context.getBean(LoginService.class));
+        } else {
+            System.out.println("Reusing the load test data already in the database");
+        }
+        return load(jdbc);
+    }
+
+    List<String> users(String role) { return usernamesByRole.getOrDefault(role, List.of()); }
+
+    // ==========================================
+    // SEEDING
+    // ==========================================
+    private static void seed(JdbcTemplate jdbc, LoginService loginService) {
+        long start = System.nanoTime();
+        Random random = new Random(7);
+        // Real BCrypt at the configured strength, so logins cost what they cost in production
+        String hash = loginService.hashPassword(PASSWORD);
+
+        long moduleId = maxId(jdbc, "modules");
+        long materialId = maxId(jdbc, "learning_materials");
+        long userId = maxId(jdbc, "users");
+
+        List<Object[]> courses = new ArrayList<>();
+        List<Object[]> subjects = new ArrayList<>();
+        List<Object[]> modules = new ArrayList<>();
+        List<Object[]> materials = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            String course = "LT" + c;
+            courses.add(new Object[]{course, "Load Test Course " + c, "Seeded by the load test", "#3b82f6", "active"});
+            for (int s = 0; s < SUBJECTS_PER_COURSE; s++) {
+                String subject = course + "S" + s;
+                subjects.add(new Object[]{subject, "Subject " + s + " of " + course, "#22c55e", course, 1 + s % 4, 1 + s % 2, "active"});
+                for (int m = 1; m <= MODULES_PER_SUBJECT; m++) {
+                    modules.add(new Object[]{++moduleId, "Module " + m, "Week " + m, m, "active", subject});
+                    for (int l = 0; l < MATERIALS_PER_MODULE; l++) {
+                        String type = TYPES[random.nextInt(TYPES.length)];
+                        materials.add(new Object[]{++materialId, "Lesson " + l, type,
+                                "/api/files/loadtest-" + materialId + "." + type, subject, moduleId});
+                    }
+                }
+            }
+        }
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            users.add(new Object[]{++userId, "lt-student-" + i, hash, "student", "LT" + (i % COURSES)});
+        }
+        for (int i = 0; i < PROFESSORS; i++) {
+            users.add(new Object[]{++userId, "lt-professor-" + i, hash, "professor", "LT" + (i % COURSES)});
+        }
+        for (int i = 0; i < ADMINS; i++) {
+            users.add(new Object[]{++userId, "lt-admin-" + i, hash, "admin", null});
+        }
+
+        jdbc.batchUpdate("INSERT INTO courses (id, title, description, theme_color, status) VALUES (?, ?, ?, ?, ?)", courses);
+        jdbc.batchUpdate("INSERT INTO subjects (code, title, color, course_id, year_level, semester, status) VALUES (?, ?, ?, ?, ?, ?, ?)", subjects);
+        jdbc.batchUpdate("INSERT INTO modules (id, title, description, module_number, status, subject_code) VALUES (?, ?, ?, ?, ?, ?)", modules);
+        jdbc.batchUpdate("INSERT INTO learning_materials (id, title, type, file_path, subject_code, module_id) VALUES (?, ?, ?, ?, ?, ?)", materials);
+        jdbc.batchUpdate("INSERT INTO users (id, username, password, role, course_id) VALUES (?, ?, ?, ?, ?)", users);
+
+        // The uploads during the run get ids after the seeded rows
+        nextId(jdbc, "modules", moduleId + 1);
+        nextId(jdbc, "learning_materials", materialId + 1);
+        nextId(jdbc, "users", userId + 1);
+
+        System.out.printf("Seeded %d courses, %d subjects, %d modules, %d lessons, %d users in %d ms%n",
+                courses.size(), subjects.size(), modules.size(), materials.size(), users.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static long maxId(JdbcTemplate jdbc, String table) {
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    // Moves the pooled-lo generator past the seeded ids (never backwards)
+    private static void nextId(JdbcTemplate jdbc, String name, long next) {
+        int updated = jdbc.update("UPDATE id_generators SET next_val = GREATEST(next_val, ?) WHERE name = ?", next, name);
+        if (updated == 0) jdbc.update("INSERT INTO id_generators (name, next_val) VALUES (?, ?)", name, next);
+    }
+
+    // ==========================================
+    // LOADING (what the scenarios pick from)
+    // ==========================================
+    private static LoadTestData load(JdbcTemplate jdbc) {
+        LoadTestData data = new LoadTestData();
+        jdbc.query("SELECT code, course_id FROM subjects WHERE code LIKE 'LT%' ORDER BY code", rs -> {
+            String course = rs.getString("course_id");
+            if (!data.subjectsByCourse.containsKey(course)) data.courses.add(course);
+            data.subjectsByCourse.computeIfAbsent(course, k -> new ArrayList<>()).add(rs.getString("code"));
+        });
+        jdbc.query("SELECT id, subject_code FROM modules WHERE subject_code LIKE 'LT%' ORDER BY id", rs -> {
+            data.modulesBySubject.computeIfAbsent(rs.getString("subject_code"), k -> new ArrayList<>()).add(rs.getLong("id"));
+        });
+        jdbc.query("SELECT username, role FROM users WHERE username LIKE 'lt-%' ORDER BY id", rs -> {
+            data.usernamesByRole.computeIfAbsent(rs.getString("role"), k -> new ArrayList<>()).add(rs.getString("username"));
+        });
+        return data;
+    }
+}
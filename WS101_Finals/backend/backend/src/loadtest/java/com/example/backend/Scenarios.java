@@ -0,0 +1,251 @@
+package com.example.backend;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+// What one simulated person does, mirroring the frontend pages call for call:
+//   student   login.html -> home.js (course list) -> dashboard.js (student home)
+//             -> Roadmap.js (modules of a subject) -> Subject.js (lessons of a module)
+//   professor login.html -> professor.js dashboard (stats, subjects, lessons, modules)
+//             -> upload a lesson and poll the upload job until it is stored
+//   admin     login.html -> admin.js (courses, users, first log page)
+// Calls carry the login token like auth-fetch.js does.
+final class Scenarios {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_UPLOAD_POLLS = 100;
+
+    // A real one-page PDF, so text extraction does its usual work on every upload
+    private static final byte[] LESSON_PDF = lessonPdf();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadTestData data;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper;
+    private final Random random;
+
+    private String scenario;
+    private String token;
+
+    Scenarios(HttpClient client, String baseUrl, LoadTestData data, LatencyRecorder recorder,
+              ObjectMapper objectMapper, Random random) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.recorder = recorder;
+        this.objectMapper = objectMapper;
+        this.random = random;
+    }
+
+    void run(String name) {
+        scenario = name;
+        token = null;
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = switch (name) {
+                case "student" -> student();
+                case "professor" -> professor();
+                case "admin" -> admin();
+                default -> throw new IllegalArgumentException("Unknown scenario " + name);
+            };
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        recorder.record(name + " (whole flow)", start, System.nanoTime(), ok);
+    }
+
+    // ==========================================
+    // SCENARIOS (false = a step failed, the rest of the flow is skipped)
+    // ==========================================
+    private boolean student() {
+        Map<?, ?> user = login("student");
+        if (user == null) return false;
+        String courseId = (String) user.get("courseId");
+
+        if (get("course list", "/api/admin/courses") == null) return false;
+        if (get("student home", "/api/student/home?courseId=" + encode(courseId)) == null) return false;
+
+        String subject = pick(data.subjectsByCourse.get(courseId));
+        if (get("subject roadmap", "/api/admin/modules?subjectCode=" + encode(subject)) == null) return false;
+        Long moduleId = pick(data.modulesBySubject.get(subject));
+        return get("module lessons", "/api/student/materials?subjectCode=" + encode(subject) + "&moduleId=" + moduleId) != null;
+    }
+
+    private boolean professor() {
+        Map<?, ?> user = login("professor");
+        if (user == null) return false;
+        String courseId = (String) user.get("courseId");
+
+        if (get("stats", "/api/professor/stats?courseId=" + encode(courseId)) == null) return false;
+        if (get("subjects", "/api/professor/subjects?courseId=" + encode(courseId)) == null) return false;
+        if (get("lessons", "/api/professor/materials?courseId=" + encode(courseId)) == null) return false;
+
+        String subject = pick(data.subjectsByCourse.get(courseId));
+        if (get("modules", "/api/admin/modules?subjectCode=" + encode(subject)) == null) return false;
+        return upload(subject, pick(data.modulesBySubject.get(subject)));
+    }
+
+    private boolean admin() {
+        if (login("admin") == null) return false;
+        if (get("courses", "/api/admin/courses") == null) return false;
+        if (get("users", "/api/admin/users") == null) return false;
+        return get("log page", "/api/admin/logs/page?limit=100") != null;
+    }
+
+    // ==========================================
+    // STEPS
+    // ==========================================
+    private Map<?, ?> login(String role) {
+        String body = objectMapper.writeValueAsString(Map.of("username", pick(data.users(role)), "password", LoadTestData.PASSWORD));
+        String response = send("login", HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (response == null) return null;
+        Map<?, ?> user = objectMapper.readValue(response, Map.class);
+        token = (String) user.get("token");
+        return user;
+    }
+
+    // Same form as professor.js sends; the lesson is stored in the background, so the
+    // "upload stored" step is the time until the job poll says DONE
+    private boolean upload(String subject, Long moduleId) {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        // Different bytes each time, or storage dedup would skip all but the first
+        byte[] file = concat(LESSON_PDF, ("%" + UUID.randomUUID() + "\n").getBytes(StandardCharsets.US_ASCII));
+        byte[] body = multipart(boundary, Map.of(
+                "title", "Load test lesson",
+                "subjectCode", subject,
+                "moduleId", String.valueOf(moduleId)), "file", "lesson.pdf", file);
+
+        long start = System.nanoTime();
+        String response = send("upload lesson", HttpRequest.newBuilder(uri("/api/professor/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+        if (response == null) return false;
+        String jobId = (String) objectMapper.readValue(response, Map.class).get("jobId");
+
+        for (int i = 0; i < MAX_UPLOAD_POLLS; i++) {
+            String job = get("upload status", "/api/uploads/" + jobId);
+            if (job == null) break;
+            Object status = objectMapper.readValue(job, Map.class).get("status");
+            if ("DONE".equals(status) || "FAILED".equals(status)) {
+                recorder.record(scenario + ": upload stored", start, System.nanoTime(), "DONE".equals(status));
+                return "DONE".equals(status);
+            }
+            sleep(100);
+        }
+        recorder.record(scenario + ": upload stored", start, System.nanoTime(), false);
+        return false;
+    }
+
+    private String get(String step, String path) {
+        return send(step, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    // The body of a 2xx response, otherwise null (recorded as an error)
+    private String send(String step, HttpRequest.Builder request) {
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() < 300;
+            recordCall(step, start, ok);
+            return ok ? response.body() : null;
+        } catch (IOException e) {
+            recordCall(step, start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // Per step, and once more across every call of the run
+    private void recordCall(String step, long start, boolean ok) {
+        long end = System.nanoTime();
+        recorder.record(scenario + ": " + step, start, end, ok);
+        recorder.record(LatencyRecorder.ALL_REQUESTS, start, end, ok);
+    }
+
+    // ==========================================
+    // HELPERS
+    // ==========================================
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private URI uri(String path) { return URI.create(baseUrl + path); }
+
+    private static String encode(String value) { return URLEncoder.encode(value, StandardCharsets.UTF_8); }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] multipart(String boundary, Map<String, String> fields, String fileField, String filename, byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length + 1024);
+        StringBuilder head = new StringBuilder();
+        fields.forEach((name, value) -> head.append("--").append(boundary).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n")
+                .append(value).append("\r\n"));
+        head.append("--").append(boundary).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(fileField)
+                .append("\"; filename=\"").append(filename).append("\"\r\n")
+                .append("Content-Type: application/pdf\r\n\r\n");
+        out.writeBytes(head.toString().getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(content);
+        out.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] joined = new byte[a.length + b.length];
+        System.arraycopy(a, 0, joined, 0, a.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+
+    private static byte[] lessonPdf() {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream text = new PDPageContentStream(document, page)) {
+                text.beginText();
+                text.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                text.newLineAtOffset(72, 720);
+                text.showText("Load test lesson: variables, loops and methods in Java");
+                text.endText();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Platform vs virtual request threads (spring.threads.virtual.enabled, section 16 of the
+// properties) under a read-heavy and an upload-heavy mix: ./gradlew threadModeBenchmark.
+// Each of the four runs gets a freshly started backend and the usual loadtest.* settings;
+// the table compares all HTTP calls of each run (throughput, p50/p95/p99).
+// Use enough users that Tomcat's 200 platform threads are actually the limit.
+public final class ThreadModeBenchmark {
+
+    private ThreadModeBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTest.Settings settings = LoadTest.Settings.fromSystemProperties();
+        String readMix = System.getProperty("loadtest.read-mix", "student:90,admin:10");
+        String uploadMix = System.getProperty("loadtest.upload-mix", "professor:80,student:20");
+
+        List<String[]> rows = new ArrayList<>();
+        for (String[] mix : new String[][]{{"read-heavy", readMix}, {"upload-heavy", uploadMix}}) {
+            for (boolean virtual : new boolean[]{false, true}) {
+                LatencyRecorder recorder = LoadTest.run(settings.withMix(mix[1]),
+                        "--spring.threads.virtual.enabled=" + virtual);
+                String[] row = recorder.row(LatencyRecorder.ALL_REQUESTS, settings.seconds());
+                row[0] = mix[0] + " / " + (virtual ? "virtual" : "platform");
+                rows.add(row);
+            }
+        }
+
+        System.out.println();
+        LatencyRecorder.print("mix / threads", rows);
+        String name = "thread-modes-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv";
+        System.out.println("Report written to " + LatencyRecorder.writeCsv(LoadTest.reportDir(), name, "mix_threads", rows));
+    }
+}
@@ -5,10 +5,14 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+        @Index(name = "idx_activity_logs_timestamp", columnList = "timestamp, id")
+})
 public class ActivityLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "activity_logs_id")
+    @TableGenerator(name = "activity_logs_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "activity_logs", allocationSize = 50)
     private Long id;
 
     private String username; // The ID or Name of who/what was affected
@@ -48,4 +52,7 @@ public class ActivityLog {
         return timestamp.format(formatter);
     }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    // Raw value for the log page cursor (getTimestamp() is minute precision)
+    LocalDateTime timestampValue() { return timestamp; }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.backend;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+// One page of activity logs plus the cursor for the next one (null on the last page)
+public record ActivityLogPage(List<ActivityLog> items, String nextCursor) {
+
+    // The cursor is the (timestamp, id) of the last row on the page, encoded so clients treat it as opaque.
+    // Old rows can have no timestamp; theirs is left empty.
+    static String cursorOf(ActivityLog last) {
+        LocalDateTime timestamp = last.timestampValue();
+        String raw = (timestamp == null ? "" : timestamp.toString()) + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null when the last row seen had no timestamp
+    static LocalDateTime cursorTimestamp(String cursor) {
+        String timestamp = decode(cursor)[0];
+        return timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp);
+    }
+
+    static Long cursorId(String cursor) {
+        return Long.valueOf(decode(cursor)[1]);
+    }
+
+    private static String[] decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|");
+        if (parts.length != 2) throw new IllegalArgumentException("Invalid cursor");
+        return parts;
+    }
+}
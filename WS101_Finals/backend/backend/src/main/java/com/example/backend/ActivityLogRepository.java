@@ -1,11 +1,40 @@
 package com.example.backend;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
     // This fetches logs with the newest ones first
     List<ActivityLog> findAllByOrderByTimestampDesc();
-}
\ No newline at end of file
+
+    // Keyset pagination: first page, then everything strictly older than the last row seen.
+    // (timestamp, id) is the sort key so rows with the same timestamp are never skipped.
+    // MySQL sorts NULL lowest, so rows without a timestamp come last, by id.
+    List<ActivityLog> findAllByOrderByTimestampDescIdDesc(Pageable limit);
+
+    @Query("select l from ActivityLog l where l.timestamp < :timestamp"
+            + " or (l.timestamp = :timestamp and l.id < :id) or l.timestamp is null"
+            + " order by l.timestamp desc, l.id desc")
+    List<ActivityLog> findPageBefore(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Pageable limit);
+
+    // Once the cursor is past the last timestamped row
+    @Query("select l from ActivityLog l where l.timestamp is null and l.id < :id order by l.id desc")
+    List<ActivityLog> findUntimedPageBefore(@Param("id") Long id, Pageable limit);
+
+    // Streams the whole table with a bounded fetch size (needs useCursorFetch=true on MySQL).
+    // Must be consumed inside a transaction and closed afterwards.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select l from ActivityLog l order by l.timestamp desc, l.id desc")
+    Stream<ActivityLog> streamNewestFirst();
+}
@@ -0,0 +1,205 @@
+package com.example.backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Takes activity log writes off the request path. Controllers enqueue, a background
+// thread drains the queue and writes each batch in one transaction; ids come from the
+// pooled generator, so Hibernate sends the inserts as a JDBC batch.
+@Component
+public class ActivityLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogWriter.class);
+
+    // What to do when the queue is full
+    public enum OverflowPolicy {
+        BLOCK,        // wait for space (caller is slowed down, nothing is lost)
+        DROP_OLDEST,  // discard the oldest queued entry to make room
+        SYNC          // write this entry directly on the caller's thread
+    }
+
+    @Autowired private ActivityLogRepository logRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${app.activity-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.activity-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.activity-log.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.activity-log.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    private BlockingQueue<ActivityLog> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    // Cleared when shutdown begins; entries logged after that are counted as dropped.
+    // inFlight counts the log calls that got past the check but haven't queued their entry yet.
+    private volatile boolean accepting;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong late = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong syncWrites = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        accepting = true;
+        worker = Thread.ofPlatform().name("activity-log-writer").daemon().start(this::drainLoop);
+    }
+
+    public void log(String username, String action, String role) {
+        if (!enter()) return;
+        try {
+            ActivityLog entry = new ActivityLog(username, action, role);
+            if (queue.offer(entry)) return;
+
+            switch (overflowPolicy) {
+                case BLOCK -> {
+                    try {
+                        queue.put(entry);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.incrementAndGet();
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!queue.offer(entry)) {
+                        if (queue.poll() != null) dropped.incrementAndGet();
+                    }
+                }
+                case SYNC -> {
+                    syncWrites.incrementAndGet();
+                    write(List.of(entry));
+                }
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // For high-volume entries (logins) that must never slow the request down: when the
+    // queue is full the entry is dropped, whatever the overflow policy says
+    public void logIfRoom(String username, String action, String role) {
+        if (!enter()) return;
+        try {
+            if (!queue.offer(new ActivityLog(username, action, role))) dropped.incrementAndGet();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // False (and the entry counted as dropped) once shutdown has begun. Otherwise the
+    // caller is in flight until it decrements inFlight, and shutdown waits for it.
+    private boolean enter() {
+        inFlight.incrementAndGet();
+        if (accepting) return true;
+        inFlight.decrementAndGet();
+        late.incrementAndGet();
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    private void drainLoop() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActivityLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Collect until the batch is full or the flush interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    ActivityLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<ActivityLog> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> logRepository.saveAll(batch));
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} activity log entries", batch.size(), e);
+        }
+    }
+
+    // Stop taking entries, stop the worker and write whatever is still queued before the
+    // DataSource goes away. Runs on a normal JVM exit too (Spring's shutdown hook), so the
+    // daemon worker never takes queued entries down with it.
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Let the calls already past the check queue their entries first; the worker is
+        // still running, so one blocked on a full queue gets its space
+        accepting = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) Thread.sleep(5);
+
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<ActivityLog> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            write(rest.subList(i, Math.min(i + batchSize, rest.size())));
+        }
+        if (!rest.isEmpty()) log.info("Flushed {} activity log entries on shutdown", rest.size());
+        if (late.get() > 0) log.warn("Dropped {} activity log entries logged during shutdown", late.get());
+    }
+
+    public int queueDepth() { return queue.size(); }
+    public long dropped() { return dropped.get(); }
+    public long written() { return written.get(); }
+    public long failed() { return failed.get(); }
+    public long syncWrites() { return syncWrites.get(); }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queueDepth());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("overflowPolicy", overflowPolicy);
+        stats.put("written", written());
+        stats.put("dropped", dropped());
+        stats.put("failed", failed());
+        stats.put("syncWrites", syncWrites());
+        return stats;
+    }
+}
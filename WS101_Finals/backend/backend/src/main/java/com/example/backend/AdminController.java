@@ -1,12 +1,37 @@
 package com.example.backend;
 
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.persistence.PersistenceContext;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -14,12 +39,31 @@ import java.util.List;
 public class AdminController {
 
     @Autowired private UserRepository userRepository;
+    @Autowired private LoginService loginService;
+    @Autowired private TokenService tokenService;
     @Autowired private CourseRepository courseRepository;
     @Autowired private SubjectRepository subjectRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private QuizRepository quizRepository;
+    @Autowired private MaterialTextRepository materialTextRepository;
     @Autowired private ActivityLogRepository logRepository; // ✅ NEW
-    @Autowired private CloudinaryService cloudinaryService;
+    @Autowired private ActivityLogWriter logWriter;
+    @Autowired private UploadService uploadService;
+    @Autowired private CatalogService catalogService;
+    @Autowired private BulkImportService bulkImportService;
+    @Autowired private SearchIndex searchIndex;
+    @Autowired private TextExtractionService textExtraction;
+    @Autowired private ImageDerivativeService imageDerivatives;
+    @Autowired private CourseStatsService courseStats;
+    @Autowired private CacheManager cacheManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @PersistenceContext private EntityManager entityManager;
 
     private static final String UPLOAD_DIR = "uploads/";
+    private static final int DEFAULT_LOG_PAGE_SIZE = 50;
+    private static final int MAX_LOG_PAGE_SIZE = 500;
 
     // ==========================================
     // 0. ACTIVITY LOGS (✅ NEW ENDPOINT)
@@ -29,10 +73,73 @@ public class AdminController {
         return logRepository.findAllByOrderByTimestampDesc();
     }
 
-    // Helper to save logs easily
+    // Keyset-paginated logs, newest first. Pass the previous page's nextCursor as "after".
+    // Cost depends only on the page size, not on how big activity_logs has grown.
+    @GetMapping("/logs/page")
+    public ResponseEntity<?> getLogPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_LOG_PAGE_SIZE) int limit
+    ) {
+        int size = Math.max(1, Math.min(limit, MAX_LOG_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, size);
+
+        List<ActivityLog> items;
+        if (after == null || after.isEmpty()) {
+            items = logRepository.findAllByOrderByTimestampDescIdDesc(page);
+        } else {
+            try {
+                LocalDateTime timestamp = ActivityLogPage.cursorTimestamp(after);
+                Long id = ActivityLogPage.cursorId(after);
+                items = timestamp == null
+                        ? logRepository.findUntimedPageBefore(id, page)
+                        : logRepository.findPageBefore(timestamp, id, page);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
+
+        String next = items.size() == size ? ActivityLogPage.cursorOf(items.get(items.size() - 1)) : null;
+        return ResponseEntity.ok(new ActivityLogPage(items, next));
+    }
+
+    // Full export as newline-delimited JSON. Rows are streamed from the database with a
+    // bounded fetch size and detached as they are written, so memory stays flat.
+    @GetMapping("/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs() {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<ActivityLog> logs = logRepository.streamNewestFirst()) {
+                    Iterator<ActivityLog> it = logs.iterator();
+                    while (it.hasNext()) {
+                        ActivityLog log = it.next();
+                        writer.write(objectMapper.writeValueAsString(log));
+                        writer.write('\n');
+                        entityManager.detach(log);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=activity-logs.ndjson")
+                .body(body);
+    }
+
+    // Queue depth and dropped/failed counts of the background log writer
+    @GetMapping("/logs/writer-stats")
+    public Map<String, Object> getLogWriterStats() {
+        return logWriter.stats();
+    }
+
+    // Helper to save logs easily (written asynchronously in batches)
     private void logActivity(String target, String action, String role) {
-        ActivityLog log = new ActivityLog(target, action, role);
-        logRepository.save(log);
+        logWriter.log(target, action, role);
     }
 
     // ==========================================
@@ -40,13 +147,16 @@ public class AdminController {
     // ==========================================
 
     @GetMapping("/users")
-    public List<User> getAllUsers() { return userRepository.findAll(); }
+    public List<UserSummary> getAllUsers() { return userRepository.findSummaries(); }
 
     @PostMapping("/users")
     public ResponseEntity<?> createUser(@RequestBody User user) {
         if (userRepository.findByUsername(user.getUsername()) != null) {
             return ResponseEntity.badRequest().body("Username already exists");
         }
+        if (user.getPassword() == null || user.getPassword().isBlank()) {
+            return ResponseEntity.badRequest().body("Password is required");
+        }
 
         if ("professor".equalsIgnoreCase(user.getRole())) {
             if (user.getCourseId() == null || user.getCourseId().trim().isEmpty()) {
@@ -57,7 +167,11 @@ public class AdminController {
         }
         if (user.getRole() == null) user.setRole("student");
 
+        user.setPassword(loginService.hashPassword(user.getPassword()));
+
         User savedUser = userRepository.save(user);
+        courseStats.userCreated(savedUser);
+        loginService.userChanged(savedUser.getUsername());
 
         // ✅ LOG IT
         logActivity(savedUser.getUsername(), "User created", savedUser.getRole());
@@ -65,12 +179,27 @@ public class AdminController {
         return ResponseEntity.ok(savedUser);
     }
 
+    // Enrolment batches: CSV (header: username,password,role,courseId) or a JSON array of users
+    @PostMapping(value = "/users/bulk", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<?> importUsers(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(bulkImportService.importUsers(request.getInputStream(), request.getContentType()));
+        } catch (IllegalArgumentException | JacksonException | UncheckedIOException e) {
+            return ResponseEntity.badRequest().body("Could not read import: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) return ResponseEntity.notFound().build();
 
         userRepository.deleteById(id);
+        courseStats.userDeleted(user);
+        loginService.userChanged(user.getUsername());
+        tokenService.userChanged(id); // their tokens stop working
+        uploadService.releaseContent(user.getProfileImageHash());
+        uploadService.releaseContents(user.getProfileImageVariantHashes());
 
         // ✅ LOG IT
         logActivity(user.getUsername(), "User deleted", user.getRole());
@@ -83,7 +212,12 @@ public class AdminController {
     // ==========================================
 
     @GetMapping("/courses")
-    public List<Course> getAllCourses() { return courseRepository.findAll(); }
+    public ResponseEntity<List<CourseSummary>> getAllCourses(WebRequest request) {
+        String etag = catalogService.etag(CatalogService.ALL_COURSES);
+        if (request.checkNotModified(etag)) return null;
+        // Images are fetched per card from /api/courses/{id}/image
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(courseRepository.findSummaries());
+    }
 
     @PostMapping("/courses")
     public ResponseEntity<?> createCourse(
@@ -104,17 +238,19 @@ public class AdminController {
         course.setThemeColor(themeColor);
         course.setStatus("active");
 
+        courseRepository.save(course);
+        catalogService.courseChanged(course.getId());
+
+        // The image is uploaded in the background and set on the course when done
+        UploadJob job = null;
         if (file != null && !file.isEmpty()) {
-            String imagePath = saveFile(file);
-            course.setImage(imagePath);
+            job = saveCourseImage(course.getId(), file);
         }
 
-        courseRepository.save(course);
-
         // ✅ LOG IT
         logActivity(course.getId(), "Course created", "System");
 
-        return ResponseEntity.ok(course);
+        return withUploadJob(ResponseEntity.ok(), job).body(course);
     }
 
     @PutMapping("/courses/{id}")
@@ -130,23 +266,32 @@ public class AdminController {
             existing.setDescription(description);
             existing.setThemeColor(themeColor);
 
+            courseRepository.save(existing);
+            catalogService.courseChanged(existing.getId());
+
+            // Keeps the old image until the new one has finished uploading
+            UploadJob job = null;
             if (file != null && !file.isEmpty()) {
-                String imagePath = saveFile(file);
-                existing.setImage(imagePath);
+                job = saveCourseImage(existing.getId(), file);
             }
-            courseRepository.save(existing);
 
             // ✅ LOG IT
             logActivity(existing.getId(), "Course updated", "System");
 
-            return ResponseEntity.ok(existing);
+            return withUploadJob(ResponseEntity.ok(), job).body(existing);
         }).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/courses/{id}")
     public ResponseEntity<?> deleteCourse(@PathVariable String id) {
-        if (!courseRepository.existsById(id)) return ResponseEntity.notFound().build();
-        courseRepository.deleteById(id);
+        Course course = courseRepository.findById(id).orElse(null);
+        if (course == null) return ResponseEntity.notFound().build();
+
+        // Its subjects go with it, or search would still list them
+        deleteSubjects(subjectRepository.findByCourseId(id), () -> courseRepository.deleteById(id));
+        catalogService.courseChanged(id);
+        uploadService.releaseContent(course.getImageHash());
+        uploadService.releaseContents(course.getImageVariantHashes());
 
         // ✅ LOG IT
         logActivity(id, "Course deleted", "System");
@@ -159,17 +304,22 @@ public class AdminController {
     // ==========================================
 
     @GetMapping("/subjects")
-    public List<Subject> getSubjects(@RequestParam(required = false) String courseId) {
-        if (courseId != null && !courseId.isEmpty()) {
-            return subjectRepository.findByCourseId(courseId);
-        }
-        return subjectRepository.findAll();
+    public ResponseEntity<List<Subject>> getSubjects(@RequestParam(required = false) String courseId, WebRequest request) {
+        boolean byCourse = courseId != null && !courseId.isEmpty();
+        long version = catalogService.version(byCourse ? CatalogService.subjectsOf(courseId) : CatalogService.ALL_SUBJECTS);
+        String etag = CatalogService.etagOf(version);
+        if (request.checkNotModified(etag)) return null;
+
+        List<Subject> subjects = byCourse ? catalogService.getSubjectsByCourse(courseId, version) : subjectRepository.findAll();
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(subjects);
     }
 
     @GetMapping("/subjects/{code}")
-    public ResponseEntity<Subject> getSubject(@PathVariable String code) {
+    public ResponseEntity<Subject> getSubject(@PathVariable String code, WebRequest request) {
+        String etag = catalogService.etag(CatalogService.ALL_SUBJECTS);
+        if (request.checkNotModified(etag)) return null;
         return subjectRepository.findById(code)
-                .map(ResponseEntity::ok)
+                .map(subject -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(subject))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -183,6 +333,9 @@ public class AdminController {
         if (subject.getStatus() == null) subject.setStatus("active");
 
         subjectRepository.save(subject);
+        catalogService.subjectsChanged(subject.getCourseId());
+        courseStats.subjectCreated(subject);
+        searchIndex.indexSubject(subject);
 
         // ✅ LOG IT
         logActivity(subject.getCode(), "Subject created", "System");
@@ -190,6 +343,16 @@ public class AdminController {
         return ResponseEntity.ok(subject);
     }
 
+    // CSV (header: code,title,color,courseId,yearLevel,semester,status) or a JSON array of subjects
+    @PostMapping(value = "/subjects/bulk", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<?> importSubjects(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(bulkImportService.importSubjects(request.getInputStream(), request.getContentType()));
+        } catch (IllegalArgumentException | JacksonException | UncheckedIOException e) {
+            return ResponseEntity.badRequest().body("Could not read import: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/subjects/{code}")
     public ResponseEntity<?> updateSubject(@PathVariable String code, @RequestBody Subject subject) {
         return subjectRepository.findById(code).map(existing -> {
@@ -199,6 +362,8 @@ public class AdminController {
             existing.setStatus(subject.getStatus());
 
             subjectRepository.save(existing);
+            catalogService.subjectsChanged(existing.getCourseId());
+            searchIndex.indexSubject(existing);
 
             // ✅ LOG IT
             logActivity(code, "Subject updated", "System");
@@ -209,8 +374,9 @@ public class AdminController {
 
     @DeleteMapping("/subjects/{code}")
     public ResponseEntity<?> deleteSubject(@PathVariable String code) {
-        if (!subjectRepository.existsById(code)) return ResponseEntity.notFound().build();
-        subjectRepository.deleteById(code);
+        Subject subject = subjectRepository.findById(code).orElse(null);
+        if (subject == null) return ResponseEntity.notFound().build();
+        deleteSubjects(List.of(subject), () -> { });
 
         // ✅ LOG IT
         logActivity(code, "Subject deleted", "System");
@@ -218,11 +384,104 @@ public class AdminController {
         return ResponseEntity.ok("Subject deleted successfully");
     }
 
+    // A subject takes its modules, lessons (with their extracted text) and quizzes with it, in
+    // one transaction together with whatever else the caller deletes (e.g. the course). Lessons
+    // then give back their stored files, and the search index drops the subject with everything under it.
+    private void deleteSubjects(List<Subject> subjects, Runnable alsoDelete) {
+        List<String> codes = subjects.stream().map(Subject::getCode).toList();
+        List<LearningMaterial> materials = codes.isEmpty() ? List.of() : materialRepository.findBySubjectCodeIn(codes);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!codes.isEmpty()) {
+                materialTextRepository.deleteAllByIdInBatch(materials.stream().map(LearningMaterial::getId).toList());
+                materialRepository.deleteAllInBatch(materials);
+                moduleRepository.deleteAllInBatch(moduleRepository.findBySubjectCodeInOrderByModuleNumberAsc(codes));
+                quizRepository.deleteAllInBatch(quizRepository.findBySubjectCodeIn(codes));
+                subjectRepository.deleteAllInBatch(subjects);
+            }
+            alsoDelete.run();
+        });
+
+        for (Subject subject : subjects) {
+            catalogService.subjectsChanged(subject.getCourseId());
+            catalogService.modulesChanged(subject.getCode());
+            catalogService.materialsChanged(subject.getCode());
+            courseStats.subjectDeleted(subject);
+            searchIndex.removeSubject(subject.getCode());
+        }
+        for (LearningMaterial material : materials) uploadService.releaseContent(material.getContentHash());
+    }
+
     // ==========================================
-    // 4. HELPER METHODS
+    // 4. CACHE STATS (for sizing the catalog cache)
     // ==========================================
-    private String saveFile(MultipartFile file) {
-        // This simple one-liner now uploads to the cloud and returns the URL
-        return cloudinaryService.uploadFile(file);
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) continue;
+            CacheStats stats = cache.getNativeCache().stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", cache.getNativeCache().estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            result.put(name, entry);
+        }
+        result.put("credentials", loginService.cacheStats());
+        return result;
+    }
+
+    // Lesson text extraction queue and outcome counts
+    @GetMapping("/extraction/stats")
+    public Map<String, Object> getExtractionStats() {
+        return textExtraction.stats();
+    }
+
+    // Course picture / profile photo resizing queue and outcome counts
+    @GetMapping("/images/stats")
+    public Map<String, Object> getImageStats() {
+        return imageDerivatives.stats();
+    }
+
+    // ==========================================
+    // 5. HELPER METHODS
+    // ==========================================
+    private UploadJob saveCourseImage(String courseId, MultipartFile file) {
+        try {
+            String filename = file.getOriginalFilename();
+            return uploadService.submit(file, stored -> {
+                courseRepository.findById(courseId).ifPresentOrElse(course -> {
+                    String oldHash = course.getImageHash();
+                    String oldVariants = course.getImageVariantHashes();
+                    course.setImage(stored.url());
+                    course.setImageHash(stored.contentHash());
+                    course.setImageSrcset(null); // the old variants belong to the old picture
+                    course.setImageVariantHashes(null);
+                    courseRepository.save(course);
+                    // Nothing points at these any more
+                    uploadService.releaseContent(oldHash);
+                    uploadService.releaseContents(oldVariants);
+                }, () -> uploadService.releaseContent(stored.contentHash())); // deleted while uploading
+                catalogService.courseChanged(courseId);
+            }, (stored, spooled) -> imageDerivatives.submit(filename, stored, spooled, variants -> {
+                // Only if no newer picture was uploaded meanwhile, otherwise the variants aren't needed
+                courseRepository.findById(courseId).filter(c -> stored.url().equals(c.getImage())).ifPresentOrElse(course -> {
+                    String oldVariants = course.getImageVariantHashes(); // same picture uploaded twice
+                    course.setImageSrcset(variants.srcset());
+                    course.setImageVariantHashes(variants.contentHashes());
+                    courseRepository.save(course);
+                    catalogService.courseChanged(courseId);
+                    uploadService.releaseContents(oldVariants);
+                }, () -> uploadService.releaseContents(variants.contentHashes()));
+            }));
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed: " + e.getMessage());
+        }
+    }
+
+    // Lets the client poll GET /api/uploads/{id} for the image
+    private static ResponseEntity.BodyBuilder withUploadJob(ResponseEntity.BodyBuilder response, UploadJob job) {
+        return job == null ? response : response.header("X-Upload-Job-Id", job.getId());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.backend;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,10 +15,13 @@ import java.nio.file.*;
 public class AuthController {
 
     @Autowired private UserRepository userRepository;
+    @Autowired private LoginService loginService;
+    @Autowired private TokenService tokenService;
 
-    @Autowired private ActivityLogRepository logRepository;
+    @Autowired private ActivityLogWriter logWriter;
 
-    @Autowired private CloudinaryService cloudinaryService;
+    @Autowired private UploadService uploadService;
+    @Autowired private ImageDerivativeService imageDerivatives;
 
     // ✅ THIS LINE IS CRITICAL. It creates the "/login" part.
     // Combined URL: /api/auth/login
@@ -26,17 +30,13 @@ public class AuthController {
         String username = loginData.get("username");
         String password = loginData.get("password");
 
-        // 1. Find user directly from Database (Faster)
-        User user = userRepository.findByUsername(username);
+        // Cached lookup + BCrypt check; the login is logged in the background
+        UserSummary user = loginService.login(username, password);
 
-        // 2. Check if user exists AND password matches
-        if (user != null && user.getPassword().equals(password)) {
-
-            // 3. Log the login
-            logRepository.save(new ActivityLog(user.getUsername(), "User Logged In", user.getRole()));
-
-            // 4. Return the user info
-            return ResponseEntity.ok(user);
+        if (user != null) {
+            // Return the user info (never the password) and a signed token for the next calls
+            TokenService.Issued token = tokenService.issue(user);
+            return ResponseEntity.ok(new LoginResponse(user, token.token(), token.expiresAt()));
         } else {
             return ResponseEntity.status(401).body("Invalid username or password");
         }
@@ -50,23 +50,49 @@ public class AuthController {
     // ✅ ADD THIS MISSING METHOD TO FIX SAVING
     // ==========================================
     @PostMapping("/users/{id}/photo")
-    public ResponseEntity<?> uploadProfilePhoto(@PathVariable Long id, @RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadProfilePhoto(@PathVariable Long id, @RequestParam("file") MultipartFile file,
+                                                HttpServletRequest request) {
+        // With a token, users can only change their own photo (admins anybody's)
+        AuthPrincipal caller = AuthPrincipal.of(request);
+        if (caller != null && !caller.canActAs(id)) return ResponseEntity.status(403).body("Not your profile");
+
         try {
             User user = userRepository.findById(id).orElse(null);
             if (user == null) return ResponseEntity.notFound().build();
 
-            // ✅ 2. REPLACE THE OLD LOGIC WITH THIS:
-            String onlineUrl = cloudinaryService.uploadFile(file);
-
-            // 3. Update User Record with the new URL
-            user.setProfileImage(onlineUrl);
-            userRepository.save(user);
-
-            // 4. Log it
-            logRepository.save(new ActivityLog(user.getUsername(), "Updated Profile Picture", user.getRole()));
-
-            // 5. Return the URL so frontend can see it immediately
-            return ResponseEntity.ok(Map.of("message", "Upload successful", "image", onlineUrl));
+            // ✅ 2. Upload in the background; the User row gets the URL when it is done
+            String filename = file.getOriginalFilename();
+            // Smaller copies for avatars are made afterwards, off the upload thread
+            UploadJob job = uploadService.submit(file, stored -> {
+                userRepository.findById(id).ifPresentOrElse(u -> {
+                    String oldHash = u.getProfileImageHash();
+                    String oldVariants = u.getProfileImageVariantHashes();
+                    u.setProfileImage(stored.url());
+                    u.setProfileImageHash(stored.contentHash());
+                    u.setProfileImageSrcset(null);
+                    u.setProfileImageVariantHashes(null);
+                    userRepository.save(u);
+                    loginService.userChanged(u.getUsername());
+                    // The previous photo and its variants
+                    uploadService.releaseContent(oldHash);
+                    uploadService.releaseContents(oldVariants);
+                }, () -> uploadService.releaseContent(stored.contentHash())); // deleted while uploading
+            }, (stored, spooled) -> imageDerivatives.submit(filename, stored, spooled, variants -> {
+                userRepository.findById(id).filter(u -> stored.url().equals(u.getProfileImage())).ifPresentOrElse(u -> {
+                    String oldVariants = u.getProfileImageVariantHashes();
+                    u.setProfileImageSrcset(variants.srcset());
+                    u.setProfileImageVariantHashes(variants.contentHashes());
+                    userRepository.save(u);
+                    loginService.userChanged(u.getUsername());
+                    uploadService.releaseContents(oldVariants);
+                }, () -> uploadService.releaseContents(variants.contentHashes())); // replaced meanwhile
+            }));
+
+            // 3. Log it
+            logWriter.log(user.getUsername(), "Updated Profile Picture", user.getRole());
+
+            // 4. Return the job id; the frontend polls /api/uploads/{jobId} for the final URL
+            return ResponseEntity.accepted().body(Map.of("message", "Upload started", "jobId", job.getId()));
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error uploading file: " + e.getMessage());
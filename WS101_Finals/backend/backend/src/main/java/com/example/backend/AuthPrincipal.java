@@ -0,0 +1,24 @@
+package com.example.backend;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.time.Instant;
+
+// Who is calling, as read from a verified access token by TokenAuthFilter (no database lookup)
+public record AuthPrincipal(Long userId, String role, String courseId, Instant expiresAt) {
+
+    static final String ATTRIBUTE = AuthPrincipal.class.getName();
+
+    // null when the request carried no valid token
+    public static AuthPrincipal of(HttpServletRequest request) {
+        return (AuthPrincipal) request.getAttribute(ATTRIBUTE);
+    }
+
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(role);
+    }
+
+    public boolean canActAs(Long otherUserId) {
+        return isAdmin() || (userId != null && userId.equals(otherUserId));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+
+// Reference counting for deduplicated uploads (see StoredBlob)
+@Service
+public class BlobService {
+
+    @Autowired private StoredBlobRepository blobRepository;
+
+    // If this content is already stored, takes a reference to it and returns it; otherwise null
+    @Transactional
+    public StoredObject acquire(String contentHash) {
+        StoredBlob blob = blobRepository.findForUpdate(contentHash);
+        if (blob == null) return null;
+        blob.setRefCount(blob.getRefCount() + 1);
+        return blob.toStoredObject();
+    }
+
+    // Records a freshly stored object. If another upload of the same content won the race,
+    // that one is kept (with one more reference) and returned instead.
+    @Transactional
+    public StoredObject register(String contentHash, long size, StoredObject stored) {
+        StoredBlob existing = blobRepository.findForUpdate(contentHash);
+        if (existing != null) {
+            existing.setRefCount(existing.getRefCount() + 1);
+            return existing.toStoredObject();
+        }
+        blobRepository.save(new StoredBlob(contentHash, size, stored));
+        return stored.withContentHash(contentHash);
+    }
+
+    // Drops one reference; the last one also deletes the stored object, through deleteObject.
+    // That happens while the row is still locked: an upload of the same content meanwhile waits
+    // in acquire() and, once the row is gone, stores the object again. Deleting after the
+    // commit instead could remove the file that upload had just put back at the same key.
+    @Transactional
+    public void release(String contentHash, Consumer<String> deleteObject) {
+        StoredBlob blob = blobRepository.findForUpdate(contentHash);
+        if (blob == null) return;
+        if (blob.getRefCount() > 1) {
+            blob.setRefCount(blob.getRefCount() - 1);
+            return;
+        }
+        deleteObject.accept(blob.getStorageKey());
+        blobRepository.delete(blob);
+    }
+}
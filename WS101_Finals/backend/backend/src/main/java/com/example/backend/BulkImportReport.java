@@ -0,0 +1,13 @@
+package com.example.backend;
+
+import java.util.List;
+
+// Per-row outcome of a bulk import. Row numbers start at 1 (CSV header not counted).
+public record BulkImportReport(int total, int created, int failed, List<Row> rows) {
+
+    public record Row(int row, String key, String status, String message) {
+
+        static Row created(int row, String key) { return new Row(row, key, "created", null); }
+        static Row failed(int row, String key, String message) { return new Row(row, key, "error", message); }
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Bulk versions of createUser / createSubject / createModule for enrolment-sized batches.
+// The body is read row by row; every chunk costs one existence query and one batched
+// insert in its own transaction, and the whole batch gets a single activity log entry.
+// Users and modules go through JPA (their ids come from the pooled generator, Hibernate
+// batches the inserts); subjects have a natural key and are written with plain JDBC.
+// A row that fails validation or is refused by the database is reported and skipped, the
+// rest of the batch still goes in. Chunks commit as they go, so a body that turns unreadable
+// halfway still gets a report: the rows before it are in, the unreadable one says where it stopped.
+@Service
+public class BulkImportService {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private LoginService loginService;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private ActivityLogWriter logWriter;
+    @Autowired private CatalogService catalogService;
+    @Autowired private CourseStatsService courseStats;
+    @Autowired private SearchIndex searchIndex;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Value("${app.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.bulk.max-rows:50000}")
+    private int maxRows;
+
+    private static final String INSERT_SUBJECT_SQL =
+            "INSERT INTO subjects (code, title, color, course_id, year_level, semester, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // ==========================================
+    // USERS
+    // ==========================================
+    public BulkImportReport importUsers(InputStream body, String contentType) {
+        Set<String> seen = new HashSet<>();
+        BulkImportReport report = run(body, contentType, row -> row.get("username"), (chunk, results) -> {
+            Set<String> names = keys(chunk);
+            Set<String> existing = names.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingUsernames(names));
+            Set<String> courses = existingCourses(chunk, "courseId");
+
+            List<User> users = new ArrayList<>();
+            List<Parsed> accepted = new ArrayList<>();
+            for (Parsed p : chunk) {
+                User user = new User();
+                user.setUsername(p.key);
+                user.setPassword(p.get("password"));
+                user.setRole(p.get("role") == null ? "student" : p.get("role").toLowerCase());
+                user.setCourseId(p.get("courseId"));
+
+                String error = null;
+                if (p.key == null) error = "Username is required";
+                else if (user.getPassword() == null) error = "Password is required";
+                else if (existing.contains(p.key) || !seen.add(p.key)) error = "Username already exists";
+                else if ("professor".equals(user.getRole())) {
+                    if (user.getCourseId() == null) error = "Professors must be assigned to a Course/Department.";
+                    else if (!courses.contains(user.getCourseId())) error = "Unknown course: " + user.getCourseId();
+                } else {
+                    user.setCourseId(null);
+                }
+
+                if (error != null) {
+                    results.add(BulkImportReport.Row.failed(p.row, p.key, error));
+                } else {
+                    users.add(user);
+                    accepted.add(p);
+                }
+            }
+
+            // BCrypt is slow on purpose; spread the chunk's hashing over the cores
+            users.parallelStream().forEach(u -> u.setPassword(loginService.hashPassword(u.getPassword())));
+            List<User> saved = save(userRepository, users, u -> u.setId(null), accepted, results);
+            saved.forEach(courseStats::userCreated);
+            saved.forEach(u -> loginService.userChanged(u.getUsername()));
+        });
+
+        logWriter.log("Bulk import", "Users imported: " + report.created() + " created, " + report.failed() + " failed", "System");
+        return report;
+    }
+
+    // ==========================================
+    // SUBJECTS
+    // ==========================================
+    public BulkImportReport importSubjects(InputStream body, String contentType) {
+        Set<String> seen = new HashSet<>();
+        Set<String> touchedCourses = new LinkedHashSet<>();
+        BulkImportReport report = run(body, contentType, row -> row.get("code"), (chunk, results) -> {
+            Set<String> codes = keys(chunk);
+            Set<String> existing = codes.isEmpty() ? Set.of() : new HashSet<>(subjectRepository.findExistingCodes(codes));
+            Set<String> courses = existingCourses(chunk, "courseId");
+
+            List<Subject> subjects = new ArrayList<>();
+            List<Parsed> accepted = new ArrayList<>();
+            for (Parsed p : chunk) {
+                Subject subject = new Subject();
+                subject.setCode(p.key);
+                subject.setTitle(p.get("title"));
+                subject.setColor(p.get("color"));
+                subject.setCourseId(p.get("courseId"));
+                subject.setStatus(p.get("status") == null ? "active" : p.get("status"));
+
+                String error = null;
+                Integer yearLevel = p.getInt("yearLevel", 1);
+                Integer semester = p.getInt("semester", 1);
+                if (yearLevel == null || semester == null) error = "yearLevel and semester must be numbers";
+                else if (p.key == null) error = "Subject Code is required";
+                else if (p.key.length() > 50) error = "Subject Code is longer than 50 characters";
+                else if (existing.contains(p.key) || !seen.add(p.key)) error = "Subject Code already exists.";
+                else if (subject.getCourseId() == null) error = "Course is required";
+                else if (!courses.contains(subject.getCourseId())) error = "Unknown course: " + subject.getCourseId();
+
+                if (error != null) {
+                    results.add(BulkImportReport.Row.failed(p.row, p.key, error));
+                } else {
+                    subject.setYearLevel(yearLevel);
+                    subject.setSemester(semester);
+                    subjects.add(subject);
+                    accepted.add(p);
+                }
+            }
+
+            List<Subject> saved = insert(INSERT_SUBJECT_SQL, subjects, accepted, results, (ps, s) -> {
+                ps.setString(1, s.getCode());
+                ps.setString(2, s.getTitle());
+                ps.setString(3, s.getColor());
+                ps.setString(4, s.getCourseId());
+                ps.setInt(5, s.getYearLevel());
+                ps.setInt(6, s.getSemester());
+                ps.setString(7, s.getStatus());
+            });
+            for (Subject s : saved) {
+                touchedCourses.add(s.getCourseId());
+                courseStats.subjectCreated(s);
+                searchIndex.indexSubject(s);
+            }
+        });
+
+        touchedCourses.forEach(catalogService::subjectsChanged);
+        logWriter.log("Bulk import", "Subjects imported: " + report.created() + " created, " + report.failed() + " failed", "System");
+        return report;
+    }
+
+    // ==========================================
+    // MODULES
+    // ==========================================
+    public BulkImportReport importModules(InputStream body, String contentType) {
+        Set<String> touchedSubjects = new LinkedHashSet<>();
+        BulkImportReport report = run(body, contentType, row -> row.get("subjectCode"), (chunk, results) -> {
+            Set<String> codes = keys(chunk);
+            Set<String> subjects = codes.isEmpty() ? Set.of() : new HashSet<>(subjectRepository.findExistingCodes(codes));
+
+            List<Module> modules = new ArrayList<>();
+            List<Parsed> accepted = new ArrayList<>();
+            for (Parsed p : chunk) {
+                Module module = new Module();
+                module.setTitle(p.get("title"));
+                module.setDescription(p.get("description"));
+                module.setStatus(p.get("status") == null ? "locked" : p.get("status"));
+                module.setSubjectCode(p.key);
+
+                String error = null;
+                Integer number = p.getInt("moduleNumber", 0);
+                if (number == null) error = "moduleNumber must be a number";
+                else if (p.key == null) error = "Subject Code is required";
+                else if (!subjects.contains(p.key)) error = "Unknown subject: " + p.key;
+
+                if (error != null) {
+                    results.add(BulkImportReport.Row.failed(p.row, p.key, error));
+                } else {
+                    module.setModuleNumber(number);
+                    modules.add(module);
+                    accepted.add(p);
+                }
+            }
+
+            List<Module> saved = save(moduleRepository, modules, m -> m.setId(null), accepted, results);
+            saved.forEach(searchIndex::indexModule);
+            for (Module m : saved) touchedSubjects.add(m.getSubjectCode());
+        });
+
+        touchedSubjects.forEach(catalogService::modulesChanged);
+        logWriter.log("Bulk import", "Modules imported: " + report.created() + " created, " + report.failed() + " failed", "System");
+        return report;
+    }
+
+    // ==========================================
+    // CHUNKING
+    // ==========================================
+    private interface ChunkHandler {
+        void handle(List<Parsed> chunk, List<BulkImportReport.Row> results);
+    }
+
+    // One input row with its 1-based position and its (trimmed, non-empty) key
+    private record Parsed(int row, String key, Map<String, String> fields) {
+        String get(String name) {
+            String value = fields.get(name);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        // null when the value is present but not a number
+        Integer getInt(String name, int fallback) {
+            String value = get(name);
+            if (value == null) return fallback;
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private BulkImportReport run(InputStream body, String contentType,
+                                 Function<Map<String, String>, String> keyOf, ChunkHandler handler) {
+        List<BulkImportReport.Row> results = new ArrayList<>();
+        Iterator<Map<String, String>> rows = BulkRows.open(body, contentType, objectMapper);
+
+        List<Parsed> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 0;
+        while (true) {
+            Map<String, String> row;
+            try {
+                if (!rows.hasNext()) break;
+                if (rowNumber >= maxRows) {
+                    results.add(BulkImportReport.Row.failed(rowNumber + 1, null,
+                            "Too many rows (limit is " + maxRows + "), this row and the ones after it were skipped"));
+                    break;
+                }
+                row = rows.next();
+            } catch (JacksonException | UncheckedIOException e) {
+                String reason = e instanceof JacksonException je ? je.getOriginalMessage() : e.getMessage();
+                results.add(BulkImportReport.Row.failed(rowNumber + 1, null,
+                        "Could not read row (" + reason + "), this row and the ones after it were skipped"));
+                break;
+            }
+            String key = keyOf.apply(row);
+            chunk.add(new Parsed(++rowNumber, key == null || key.isBlank() ? null : key.trim(), row));
+            if (chunk.size() == chunkSize) {
+                handler.handle(chunk, results);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) handler.handle(chunk, results);
+
+        results.sort((a, b) -> Integer.compare(a.row(), b.row()));
+        int created = (int) results.stream().filter(r -> "created".equals(r.status())).count();
+        return new BulkImportReport(results.size(), created, results.size() - created, results);
+    }
+
+    // One chunk = one transaction = one JDBC batch. rows and accepted line up; returns the
+    // rows that made it in and reports every accepted row either way.
+    private <T> List<T> insert(String sql, List<T> rows, List<Parsed> accepted, List<BulkImportReport.Row> results,
+                               ParameterizedPreparedStatementSetter<T> setter) {
+        return store(rows, accepted, results, batch -> jdbcTemplate.batchUpdate(sql, batch, batch.size(), setter));
+    }
+
+    // Same for entities with generated ids; cleared afterwards so a long import doesn't
+    // pile every row into the (request-scoped) persistence context. A rolled back persist
+    // leaves its id on the entity, so that is reset before each attempt.
+    private <T> List<T> save(JpaRepository<T, ?> repository, List<T> rows, Consumer<T> clearId,
+                             List<Parsed> accepted, List<BulkImportReport.Row> results) {
+        try {
+            return store(rows, accepted, results, batch -> {
+                entityManager.clear();
+                batch.forEach(clearId);
+                repository.saveAll(batch);
+            });
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    // The existence checks run before the insert, so a concurrent import of the same key (or a
+    // value too long for its column) can still get the whole batch refused. The chunk is then
+    // written again row by row, and only the rows the database refuses are reported as failed.
+    private <T> List<T> store(List<T> rows, List<Parsed> accepted, List<BulkImportReport.Row> results,
+                              Consumer<List<T>> write) {
+        if (rows.isEmpty()) return rows;
+        try {
+            transactionTemplate.executeWithoutResult(status -> write.accept(rows));
+            for (Parsed p : accepted) results.add(BulkImportReport.Row.created(p.row, p.key));
+            return rows;
+        } catch (DataAccessException batchError) {
+            List<T> stored = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                Parsed p = accepted.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write.accept(List.of(row)));
+                    stored.add(row);
+                    results.add(BulkImportReport.Row.created(p.row, p.key));
+                } catch (DataAccessException e) {
+                    results.add(BulkImportReport.Row.failed(p.row, p.key, e instanceof DataIntegrityViolationException
+                            ? "Refused by the database (already exists or a value is too long)"
+                            : "Could not be saved"));
+                }
+            }
+            return stored;
+        }
+    }
+
+    private static Set<String> keys(List<Parsed> chunk) {
+        Set<String> keys = new HashSet<>();
+        for (Parsed p : chunk) if (p.key != null) keys.add(p.key);
+        return keys;
+    }
+
+    private Set<String> existingCourses(List<Parsed> chunk, String field) {
+        Set<String> ids = new HashSet<>();
+        for (Parsed p : chunk) if (p.get(field) != null) ids.add(p.get(field));
+        Set<String> found = new HashSet<>();
+        if (!ids.isEmpty()) courseRepository.findAllById(ids).forEach(c -> found.add(c.getId()));
+        return found;
+    }
+}
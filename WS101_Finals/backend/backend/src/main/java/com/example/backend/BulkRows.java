@@ -0,0 +1,114 @@
+package com.example.backend;
+
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Reads a bulk import body one row at a time, so the whole upload is never held in memory.
+// Accepts a JSON array of objects or CSV with a header line; every row becomes field -> value.
+final class BulkRows {
+
+    private BulkRows() {}
+
+    static Iterator<Map<String, String>> open(InputStream body, String contentType, ObjectMapper mapper) {
+        if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+            return csv(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        }
+        return json(body, mapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterator<Map<String, String>> json(InputStream body, ObjectMapper mapper) {
+        // readValues walks the top-level array element by element
+        MappingIterator<Map<String, Object>> it = mapper.readerFor(Map.class).readValues(body);
+        return new Iterator<>() {
+            @Override public boolean hasNext() { return it.hasNext(); }
+
+            @Override public Map<String, String> next() {
+                Map<String, String> row = new HashMap<>();
+                it.next().forEach((k, v) -> row.put(k, v == null ? null : String.valueOf(v)));
+                return row;
+            }
+        };
+    }
+
+    private static Iterator<Map<String, String>> csv(BufferedReader reader) {
+        List<String> header;
+        try {
+            String first = reader.readLine();
+            header = first == null ? List.of() : parseLine(first);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Iterator<>() {
+            private String line = advance();
+
+            private String advance() {
+                try {
+                    String next;
+                    do {
+                        next = reader.readLine();
+                    } while (next != null && next.isBlank());
+                    return next;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override public boolean hasNext() { return line != null; }
+
+            @Override public Map<String, String> next() {
+                if (line == null) throw new NoSuchElementException();
+                List<String> values = parseLine(line);
+                line = advance();
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    row.put(header.get(i).trim(), values.get(i));
+                }
+                return row;
+            }
+        };
+    }
+
+    // One CSV line; supports "quoted, values" and "" as an escaped quote
+    static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.backend;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Cache sizes/TTL are set in application.properties (spring.cache.caffeine.spec)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
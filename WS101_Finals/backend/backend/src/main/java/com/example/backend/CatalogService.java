@@ -0,0 +1,85 @@
+package com.example.backend;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Read-through cache for the course/subject/module catalog, which is read on almost
+// every page load but only changes through the admin and professor endpoints.
+// Every handler that changes the catalog must call the matching *Changed method, which
+// bumps that aggregate's version in catalog_versions. Readers look the version up first
+// (one primary key lookup): it is the ETag of the GET endpoints, so unchanged data is
+// answered with 304 without loading it, and it is part of the cache key, so a change made
+// through another instance is never served from this one's cache, nor answered with 304.
+@Service
+public class CatalogService {
+
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private CatalogVersionRepository versionRepository;
+
+    static final String ALL_COURSES = "courses";
+    static final String ALL_SUBJECTS = "subjects";
+
+    static String course(String id) { return "course:" + id; }
+    static String subjectsOf(String courseId) { return "subjects:" + courseId; }
+    static String modulesOf(String subjectCode) { return "modules:" + subjectCode; }
+    static String materialsOf(String subjectCode) { return "materials:" + subjectCode; }
+
+    // 0 until the aggregate first changes
+    public long version(String aggregate) {
+        Long version = versionRepository.findVersion(aggregate);
+        return version == null ? 0 : version;
+    }
+
+    public static String etagOf(long version) {
+        return "\"v" + version + "\"";
+    }
+
+    public String etag(String aggregate) {
+        return etagOf(version(aggregate));
+    }
+
+    // The cached reads take the version the caller just looked up. The version is bumped after
+    // the write is saved, so whatever is loaded under a version is at least that new; entries
+    // of older versions are never asked for again and age out of the cache.
+    @Cacheable(cacheNames = "courses", key = "#id + '@' + #version", unless = "#result == null")
+    public Course getCourse(String id, long version) {
+        return courseRepository.findById(id).orElse(null);
+    }
+
+    @Cacheable(cacheNames = "subjectsByCourse", key = "#courseId + '@' + #version")
+    public List<Subject> getSubjectsByCourse(String courseId, long version) {
+        return List.copyOf(subjectRepository.findByCourseId(courseId));
+    }
+
+    @Cacheable(cacheNames = "modulesBySubject", key = "#subjectCode + '@' + #version")
+    public List<Module> getModules(String subjectCode, long version) {
+        return List.copyOf(moduleRepository.findBySubjectCodeOrderByModuleNumberAsc(subjectCode));
+    }
+
+    // ==========================================
+    // INVALIDATION (called after the write is saved)
+    // ==========================================
+    public void courseChanged(String courseId) {
+        versionRepository.bump(ALL_COURSES);
+        if (courseId != null) versionRepository.bump(course(courseId));
+    }
+
+    public void subjectsChanged(String courseId) {
+        versionRepository.bump(ALL_SUBJECTS);
+        if (courseId != null) versionRepository.bump(subjectsOf(courseId));
+    }
+
+    public void modulesChanged(String subjectCode) {
+        if (subjectCode != null) versionRepository.bump(modulesOf(subjectCode));
+    }
+
+    // Materials aren't cached, only versioned for ETags
+    public void materialsChanged(String subjectCode) {
+        if (subjectCode != null) versionRepository.bump(materialsOf(subjectCode));
+    }
+}
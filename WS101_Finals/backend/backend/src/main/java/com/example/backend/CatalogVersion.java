@@ -0,0 +1,24 @@
+package com.example.backend;
+
+import jakarta.persistence.*;
+
+// Change counter of one catalog aggregate ("course:BSIT", "modules:CC101", ...), see CatalogService.
+// Kept in the database so every instance, and every restart, agrees on it.
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    @Column(length = 100)
+    private String aggregate;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Getters and Setters
+    public String getAggregate() { return aggregate; }
+    public void setAggregate(String aggregate) { this.aggregate = aggregate; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,22 @@
+package com.example.backend;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+
+    @Query("select v.version from CatalogVersion v where v.aggregate = :aggregate")
+    Long findVersion(@Param("aggregate") String aggregate);
+
+    // One statement, so two changes at the same time (on any instance) never get the same version
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO catalog_versions (aggregate, version) VALUES (:aggregate, 1) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    void bump(@Param("aggregate") String aggregate);
+}
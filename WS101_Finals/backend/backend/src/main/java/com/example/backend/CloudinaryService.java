@@ -2,16 +2,29 @@ package com.example.backend;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
+// Default storage backend (app.storage.backend=cloudinary)
 @Service
-public class CloudinaryService {
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements StorageBackend {
 
     private final Cloudinary cloudinary;
 
+    // Files bigger than this go through the chunked upload API
+    @Value("${app.upload.cloudinary.large-file-bytes:20971520}")
+    private long largeFileBytes;
+
+    // Cloudinary needs at least 5MB per chunk (except the last)
+    @Value("${app.upload.cloudinary.chunk-size-bytes:6291456}")
+    private int chunkSizeBytes;
+
     public CloudinaryService() {
         // Replace with your actual values from Cloudinary Dashboard
         this.cloudinary = new Cloudinary(ObjectUtils.asMap(
@@ -21,12 +34,36 @@ public class CloudinaryService {
         ));
     }
 
-    public String uploadFile(MultipartFile file) {
-        try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-            return (String) uploadResult.get("url"); // Returns the HTTP URL
-        } catch (IOException e) {
-            throw new RuntimeException("Image upload failed: " + e.getMessage());
+    // Uploads straight from the spooled file, so the upload is never held in memory as a byte[].
+    // Big files use Cloudinary's chunked upload API, which sends them in chunk-size pieces.
+    @Override
+    public StoredObject store(Path file, String originalFilename) throws IOException {
+        Map uploadResult;
+        if (Files.size(file) > largeFileBytes) {
+            uploadResult = cloudinary.uploader().uploadLarge(file.toFile(), ObjectUtils.asMap(
+                    "resource_type", resourceType(originalFilename),
+                    "chunk_size", chunkSizeBytes
+            ));
+        } else {
+            uploadResult = cloudinary.uploader().upload(file.toFile(), ObjectUtils.emptyMap());
         }
+        // Key is "<resource_type>:<public_id>" since destroy() needs both
+        String key = uploadResult.get("resource_type") + ":" + uploadResult.get("public_id");
+        return new StoredObject(key, (String) uploadResult.get("url"));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        int split = key.indexOf(':');
+        String resourceType = split > 0 ? key.substring(0, split) : "image";
+        String publicId = split > 0 ? key.substring(split + 1) : key;
+        cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("resource_type", resourceType));
+    }
+
+    private static String resourceType(String filename) {
+        String name = filename == null ? "" : filename.toLowerCase();
+        if (name.endsWith(".mp4") || name.endsWith(".avi") || name.endsWith(".mov")) return "video";
+        if (name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".pdf")) return "image";
+        return "raw";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.example.backend;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sits in front of the Hikari pool when requests run on virtual threads (see DataSourceLimitConfig).
+// With a platform thread pool Tomcat's 200 threads were the natural limit; with virtual threads
+// every waiting request is a thread, and thousands of them spinning on Hikari's hand-off until the
+// connection timeout is what brings the pool down. Here they wait in a fair (FIFO) queue for a
+// permit, one per connection, and the permit is given back when the connection is closed.
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long acquireTimeoutMs;
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public ConcurrencyLimitedDataSource(DataSource target, int limit, long acquireTimeoutMs) {
+        super(target);
+        this.limit = limit;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("No database connection free within "
+                        + acquireTimeoutMs + " ms (" + limit + " in use, " + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // Same connection, except that the first close() also frees the permit
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Limited[" + connection + "]";
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    }
+                });
+    }
+
+    public int limit() { return limit; }
+    public int inUse() { return limit - permits.availablePermits(); }
+    public int waiting() { return permits.getQueueLength(); }
+    public long timeouts() { return timeouts.get(); }
+}
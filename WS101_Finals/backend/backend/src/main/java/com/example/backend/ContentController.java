@@ -1,25 +1,42 @@
 package com.example.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/admin") // Keep URL same for frontend compatibility
 @CrossOrigin(origins = "*")
 public class ContentController {
 
-    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private CatalogService catalogService;
     @Autowired private LearningMaterialRepository materialRepository;
 
+    // Roadmap pages: short browser reuse, then cheap revalidation
+    private static final CacheControl MODULES = CacheControl.maxAge(30, TimeUnit.SECONDS).mustRevalidate();
+    // Materials change while professors upload, so always revalidate
+    private static final CacheControl MATERIALS = CacheControl.noCache();
+
     @GetMapping("/modules")
-    public List<Module> getModules(@RequestParam String subjectCode) {
-        return moduleRepository.findBySubjectCodeOrderByModuleNumberAsc(subjectCode);
+    public ResponseEntity<List<Module>> getModules(@RequestParam String subjectCode, WebRequest request) {
+        long version = catalogService.version(CatalogService.modulesOf(subjectCode));
+        String etag = CatalogService.etagOf(version);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).cacheControl(MODULES).body(catalogService.getModules(subjectCode, version));
     }
 
     @GetMapping("/materials")
-    public List<LearningMaterial> getMaterials(@RequestParam String subjectCode, @RequestParam String type, @RequestParam(required = false) Long moduleId) {
-        if (moduleId != null) return materialRepository.findBySubjectCodeAndTypeAndModuleId(subjectCode, type, moduleId);
-        return materialRepository.findBySubjectCodeAndType(subjectCode, type);
+    public ResponseEntity<List<LearningMaterial>> getMaterials(@RequestParam String subjectCode, @RequestParam String type, @RequestParam(required = false) Long moduleId, WebRequest request) {
+        String etag = catalogService.etag(CatalogService.materialsOf(subjectCode));
+        if (request.checkNotModified(etag)) return null;
+
+        List<LearningMaterial> materials = moduleId != null
+                ? materialRepository.findBySubjectCodeAndTypeAndModuleId(subjectCode, type, moduleId)
+                : materialRepository.findBySubjectCodeAndType(subjectCode, type);
+        return ResponseEntity.ok().eTag(etag).cacheControl(MATERIALS).body(materials);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.backend;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
@@ -25,6 +26,20 @@ public class Course {
     private String image;
     // -----------------------------
 
+    // Resized copies of the image, as an HTML srcset (see ImageDerivativeService)
+    @Column(length = 2000)
+    private String imageSrcset;
+
+    // SHA-256 of the stored image (see BlobService), released when it is replaced
+    @JsonIgnore
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    // Same for the variants in imageSrcset, comma-separated
+    @JsonIgnore
+    @Column(name = "image_variant_hashes", length = 1000)
+    private String imageVariantHashes;
+
     public Course() {}
 
     // Getters and Setters
@@ -45,4 +60,13 @@ public class Course {
 
     public String getImage() { return image; }
     public void setImage(String image) { this.image = image; }
+
+    public String getImageSrcset() { return imageSrcset; }
+    public void setImageSrcset(String imageSrcset) { this.imageSrcset = imageSrcset; }
+
+    public String getImageHash() { return imageHash; }
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
+
+    public String getImageVariantHashes() { return imageVariantHashes; }
+    public void setImageVariantHashes(String imageVariantHashes) { this.imageVariantHashes = imageVariantHashes; }
 }
\ No newline at end of file
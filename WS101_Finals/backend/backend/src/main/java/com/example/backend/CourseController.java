@@ -1,34 +1,96 @@
 package com.example.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.util.UriUtils;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List; // Add this import
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/courses")
 @CrossOrigin(origins = "*") // Allows your HTML frontend to access this
 public class CourseController {
 
+    // Course and subject lookups go through the catalog cache
+    @Autowired
+    private CatalogService catalogService;
+
     @Autowired
     private CourseRepository courseRepository;
 
-    @Autowired // Add this for subjects
-    private SubjectRepository subjectRepository;
+    // Student pages re-fetch these on every view; browsers may reuse them for a short while
+    // and then revalidate with If-None-Match, which is answered from the version lookup alone
+    private static final CacheControl STUDENT_CATALOG = CacheControl.maxAge(30, TimeUnit.SECONDS).mustRevalidate();
 
     @GetMapping("/{id}")
-    public Course getCourse(@PathVariable String id) {
-        // Finds the course or throws an error if missing
-        return courseRepository.findById(id).orElseThrow(() -> new RuntimeException("Course not found"));
+    public ResponseEntity<Course> getCourse(@PathVariable String id, WebRequest request) {
+        // Existence first (cached per version): a deleted or unknown course is a 404, never a 304
+        long version = catalogService.version(CatalogService.course(id));
+        Course course = catalogService.getCourse(id, version);
+        if (course == null) return ResponseEntity.notFound().build();
+
+        String etag = CatalogService.etagOf(version);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).cacheControl(STUDENT_CATALOG).body(course);
     }
 
     // Add this new endpoint for subjects
     @GetMapping("/{id}/subjects")
-    public List<Subject> getSubjectsByCourse(@PathVariable String id) {
-        return subjectRepository.findByCourseId(id);
+    public ResponseEntity<List<Subject>> getSubjectsByCourse(@PathVariable String id, WebRequest request) {
+        long version = catalogService.version(CatalogService.subjectsOf(id));
+        String etag = CatalogService.etagOf(version);
+        if (request.checkNotModified(etag)) return null;
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(STUDENT_CATALOG)
+                .body(catalogService.getSubjectsByCourse(id, version));
+    }
+
+    // Course picture on its own, so list endpoints don't carry it. Uploaded images are
+    // URLs (redirected to), older courses may still have a data: URL or a local file name.
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getCourseImage(@PathVariable String id, WebRequest request) {
+        // Only an existing course can be "not modified"; without the header the image query below decides
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && !courseRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = catalogService.etag(CatalogService.course(id));
+        if (request.checkNotModified(etag)) return null;
+
+        String image = courseRepository.findImageById(id);
+        if (image == null || image.isBlank()) return ResponseEntity.notFound().build();
+
+        if (image.startsWith("data:") && image.contains(";base64,")) {
+            int comma = image.indexOf(',');
+            String type = image.substring(5, image.indexOf(';'));
+            byte[] bytes = Base64.getMimeDecoder().decode(image.substring(comma + 1));
+            return ResponseEntity.ok().eTag(etag).cacheControl(STUDENT_CATALOG)
+                    .contentType(MediaType.parseMediaType(type.isEmpty() ? "application/octet-stream" : type))
+                    .body(bytes);
+        }
+
+        String target = image;
+        if (!image.startsWith("http")) {
+            // Old local files: "uploads/name", "/name" or just "name"
+            String name = image.replace('\\', '/');
+            if (name.startsWith("uploads/")) name = name.substring(8);
+            if (name.startsWith("/")) name = name.substring(1);
+            target = "/uploads/" + UriUtils.encodePath(name, StandardCharsets.UTF_8);
+        }
+        return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(target))
+                .eTag(etag).cacheControl(STUDENT_CATALOG).build();
     }
-}
\ No newline at end of file
+}
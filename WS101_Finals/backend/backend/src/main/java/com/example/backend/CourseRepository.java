@@ -1,9 +1,26 @@
 package com.example.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 // This interface gives you standard database methods like findById() automatically
 @Repository
 public interface CourseRepository extends JpaRepository<Course, String> {
-}
\ No newline at end of file
+
+    // List pages: every column except the LONGTEXT image
+    @Query("select new com.example.backend.CourseSummary(c.id, c.title, c.description, c.themeColor, c.status, "
+            + "case when c.image is not null then true else false end, c.imageSrcset) from Course c")
+    List<CourseSummary> findSummaries();
+
+    @Query("select new com.example.backend.CourseSummary(c.id, c.title, c.description, c.themeColor, c.status, "
+            + "case when c.image is not null then true else false end, c.imageSrcset) from Course c where c.id = :id")
+    CourseSummary findSummaryById(@Param("id") String id);
+
+    // The image on its own, for /api/courses/{id}/image
+    @Query("select c.image from Course c where c.id = :id")
+    String findImageById(@Param("id") String id);
+}
@@ -0,0 +1,134 @@
+package com.example.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Per-course dashboard counters (students, subjects, lessons, quizzes) kept in memory.
+// A course is counted from the database the first time it is asked for, then kept up to
+// date by the create/delete handlers. A periodic job recounts and logs any drift.
+// Updates for a course wait while it is being counted, so none of them is lost; one for a
+// row the count already saw can be counted twice, which the next reconcile takes back out.
+@Service
+public class CourseStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseStatsService.class);
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private QuizRepository quizRepository;
+
+    private final Map<String, CourseStats> byCourse = new ConcurrentHashMap<>();
+
+    static class CourseStats {
+        final AtomicLong students = new AtomicLong();
+        final AtomicLong subjects = new AtomicLong();
+        final AtomicLong lessons = new AtomicLong();
+        final AtomicLong quizzes = new AtomicLong();
+
+        Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            map.put("students", students.get());
+            map.put("subjects", subjects.get());
+            map.put("lessons", lessons.get());
+            map.put("quizzes", quizzes.get());
+            return map;
+        }
+    }
+
+    public Map<String, Long> getStats(String courseId) {
+        // Counted inside the map, so updates arriving meanwhile wait for it (see update())
+        return byCourse.computeIfAbsent(courseId, this::count).toMap();
+    }
+
+    // ==========================================
+    // INCREMENTAL UPDATES (only touch courses already in memory)
+    // ==========================================
+    public void userCreated(User user) { adjustStudents(user, 1); }
+    public void userDeleted(User user) { adjustStudents(user, -1); }
+
+    public void subjectCreated(Subject subject) {
+        update(subject.getCourseId(), stats -> stats.subjects.incrementAndGet());
+    }
+
+    // A deleted subject takes its lessons and quizzes out of the course totals, so just recount
+    public void subjectDeleted(Subject subject) {
+        if (subject.getCourseId() != null) byCourse.remove(subject.getCourseId());
+    }
+
+    public void materialCreated(String subjectCode) { adjust(subjectCode, 1, 0); }
+    public void materialDeleted(String subjectCode) { adjust(subjectCode, -1, 0); }
+    public void quizCreated(String subjectCode) { adjust(subjectCode, 0, 1); }
+    public void quizDeleted(String subjectCode) { adjust(subjectCode, 0, -1); }
+
+    // Same exact role match as the count below
+    private void adjustStudents(User user, long delta) {
+        if (!"student".equals(user.getRole())) return;
+        update(user.getCourseId(), stats -> stats.students.addAndGet(delta));
+    }
+
+    private void adjust(String subjectCode, long lessons, long quizzes) {
+        if (subjectCode == null || byCourse.isEmpty()) return;
+        update(subjectRepository.findCourseIdByCode(subjectCode), stats -> {
+            stats.lessons.addAndGet(lessons);
+            stats.quizzes.addAndGet(quizzes);
+        });
+    }
+
+    // Only for courses already in memory. computeIfPresent waits for a count of the same
+    // course that is still running in getStats, instead of missing it.
+    private void update(String courseId, Consumer<CourseStats> change) {
+        if (courseId == null) return;
+        byCourse.computeIfPresent(courseId, (id, stats) -> {
+            change.accept(stats);
+            return stats;
+        });
+    }
+
+    // ==========================================
+    // RECONCILIATION
+    // ==========================================
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        int drifted = 0;
+        for (Map.Entry<String, CourseStats> entry : byCourse.entrySet()) {
+            Map<String, Long> cached = entry.getValue().toMap();
+            Map<String, Long> actual = count(entry.getKey()).toMap();
+            if (!cached.equals(actual)) {
+                drifted++;
+                log.warn("Course stats drift for {}: cached {} actual {}", entry.getKey(), cached, actual);
+                // Corrected by the difference rather than overwritten, so updates made while
+                // this course was being recounted are kept
+                CourseStats stats = entry.getValue();
+                stats.students.addAndGet(actual.get("students") - cached.get("students"));
+                stats.subjects.addAndGet(actual.get("subjects") - cached.get("subjects"));
+                stats.lessons.addAndGet(actual.get("lessons") - cached.get("lessons"));
+                stats.quizzes.addAndGet(actual.get("quizzes") - cached.get("quizzes"));
+            }
+        }
+        log.info("Course stats reconciled: {} courses checked, {} drifted", byCourse.size(), drifted);
+    }
+
+    private CourseStats count(String courseId) {
+        CourseStats stats = new CourseStats();
+        stats.students.set(userRepository.countByRoleAndCourseId("student", courseId));
+        List<String> subjects = subjectRepository.findCodesByCourseId(courseId);
+        stats.subjects.set(subjects.size());
+        if (!subjects.isEmpty()) {
+            stats.lessons.set(materialRepository.countBySubjectCodeIn(subjects));
+            stats.quizzes.set(quizRepository.countBySubjectCodeIn(subjects));
+        }
+        return stats;
+    }
+}
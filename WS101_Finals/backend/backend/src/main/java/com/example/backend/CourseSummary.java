@@ -0,0 +1,16 @@
+package com.example.backend;
+
+// Course list entry without the image column (which can hold a whole base64 picture).
+// image is the /api/courses/{id}/image link when the course has one, so list pages
+// only download pictures they actually show. imageSrcset lists the resized copies
+// (see ImageDerivativeService) so cards can pick one close to their size.
+public record CourseSummary(String id, String title, String description, String themeColor,
+                            String status, String image, String imageSrcset) {
+
+    // Used by CourseRepository.findSummaries (the query only checks whether an image exists)
+    public CourseSummary(String id, String title, String description, String themeColor,
+                         String status, Boolean hasImage, String imageSrcset) {
+        this(id, title, description, themeColor, status,
+                Boolean.TRUE.equals(hasImage) ? "/api/courses/" + id + "/image" : null, imageSrcset);
+    }
+}
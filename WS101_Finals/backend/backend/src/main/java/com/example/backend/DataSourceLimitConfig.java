@@ -0,0 +1,40 @@
+package com.example.backend;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Wraps the DataSource in a ConcurrencyLimitedDataSource when app.db.limit-concurrency is on,
+// which by default is whenever spring.threads.virtual.enabled is (section 16 of the properties).
+// The limit defaults to the Hikari pool size, so callers queue in front of the pool, not inside it.
+@Configuration
+public class DataSourceLimitConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceLimitConfig.class);
+
+    // Static: post-processors are created before the rest of the configuration
+    @Bean
+    static BeanPostProcessor dataSourceLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) return bean;
+                if (!environment.getProperty("app.db.limit-concurrency", Boolean.class, false)) return bean;
+
+                int limit = environment.getProperty("app.db.max-concurrent", Integer.class, 0);
+                if (limit <= 0) {
+                    limit = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                long timeoutMs = environment.getProperty("app.db.acquire-timeout-ms", Long.class, 30_000L);
+                log.info("Database access limited to {} concurrent connections for {}", limit, beanName);
+                return new ConcurrencyLimitedDataSource(dataSource, limit, timeoutMs);
+            }
+        };
+    }
+}
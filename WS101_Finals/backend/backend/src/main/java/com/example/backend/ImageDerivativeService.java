@@ -0,0 +1,285 @@
+package com.example.backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Resized copies of course pictures and profile photos, so cards and avatars don't download
+// and decode a full-size original. Runs after the upload has been stored: UploadService hands
+// over the spooled file, we make one variant per configured width that is smaller than the
+// original (JPEG, or PNG when the picture has transparency), store them like any other upload
+// and report them as an HTML srcset ("url 320w, url 640w, original 1600w") together with the
+// content hashes of the variants. Each variant holds a BlobService reference that the owner of
+// the picture releases (UploadService.releaseContents) when it drops the srcset or doesn't use it.
+// Like text extraction this is CPU work, so it gets a small pool of platform threads with a
+// bounded queue; a full queue just means that picture keeps only its original.
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    @Autowired private UploadService uploadService;
+
+    @Value("${app.images.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.spool-dir:${java.io.tmpdir}/backend-uploads}")
+    private String spoolDir;
+
+    @Value("${app.images.widths:320,640,1280}")
+    private int[] widths;
+
+    @Value("${app.images.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${app.images.threads:2}")
+    private int threads;
+
+    @Value("${app.images.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.images.max-pixels:50000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor pool;
+    private Path workDir;
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    // What onDone gets: the srcset and the variants' content hashes, comma-separated
+    public record Variants(String srcset, String contentHashes) {}
+
+    @PostConstruct
+    void init() throws IOException {
+        widths = Arrays.stream(widths).filter(w -> w > 0).sorted().distinct().toArray();
+        workDir = Paths.get(spoolDir).resolve("images");
+        Files.createDirectories(workDir);
+        try (var leftovers = Files.list(workDir)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+
+        AtomicInteger n = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> Thread.ofPlatform().name("image-derive-" + n.incrementAndGet()).daemon().unstarted(r),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public static boolean supports(String filename) {
+        if (filename == null) return false;
+        String name = filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png")
+                || name.endsWith(".gif") || name.endsWith(".bmp");
+    }
+
+    // Called on the upload thread once the original is stored. Takes the spooled file over
+    // (moves it) and never blocks; onDone is only called if at least one variant was made.
+    public void submit(String filename, StoredObject original, Path spooled, Consumer<Variants> onDone) {
+        if (!enabled || widths.length == 0 || !supports(filename)) return;
+        try {
+            Path work = workDir.resolve(UUID.randomUUID().toString());
+            Files.move(spooled, work);
+            try {
+                pool.execute(() -> derive(filename, original, work, onDone));
+            } catch (RejectedExecutionException e) {
+                deleteQuietly(work);
+                skipped.incrementAndGet();
+                log.warn("Image queue full, {} keeps only its original", filename);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not queue resizing of {}", filename, e);
+        }
+    }
+
+    private void derive(String filename, StoredObject original, Path file, Consumer<Variants> onDone) {
+        StringJoiner hashes = new StringJoiner(",");
+        boolean handedOver = false;
+        try {
+            Decoded decoded = read(file);
+            if (decoded == null) {
+                skipped.incrementAndGet();
+                log.warn("{} is not an image we can read, no variants made", filename);
+                return;
+            }
+            boolean alpha = decoded.image().getColorModel().hasAlpha();
+            String base = baseName(filename);
+
+            StringJoiner srcset = new StringJoiner(", ");
+            for (int width : widths) {
+                if (width >= decoded.width()) break; // never upscale
+                Path out = workDir.resolve(UUID.randomUUID().toString());
+                try {
+                    write(scale(decoded.image(), width, alpha), alpha, out);
+                    StoredObject stored = uploadService.storeDerived(out, base + "-" + width + "w" + (alpha ? ".png" : ".jpg"));
+                    hashes.add(stored.contentHash());
+                    srcset.add(stored.url() + " " + width + "w");
+                } finally {
+                    deleteQuietly(out);
+                }
+            }
+            // Small originals need no copies
+            if (srcset.length() == 0) return;
+            srcset.add(original.url() + " " + decoded.width() + "w");
+
+            handedOver = true; // from here on onDone owns the references, even if it throws
+            onDone.accept(new Variants(srcset.toString(), hashes.toString()));
+            generated.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Resizing {} failed: {}", filename, e.toString());
+        } finally {
+            // Variants stored before a failure aren't used anywhere
+            if (!handedOver) uploadService.releaseContents(hashes.toString());
+            deleteQuietly(file);
+        }
+    }
+
+    // ==========================================
+    // DECODING / SCALING / ENCODING
+    // ==========================================
+    private record Decoded(BufferedImage image, int width) {}
+
+    // Checks the size from the header before decoding anything (a small PNG can claim to be
+    // 50000x50000), and decodes big photos subsampled: twice the largest variant is plenty
+    private Decoded read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (widths[widths.length - 1] * 2));
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                return new Decoded(reader.read(0, param), width);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves the size in steps, then a last step to the exact width. One big bilinear step
+    // would skip most of the source pixels and look grainy.
+    static BufferedImage scale(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    // JPEG has no transparency; GIF/PNG without an alpha channel can still be palette-transparent
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, w, h);
+                }
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    // Progressive JPEG (shows early on slow connections), metadata left out
+    private void write(BufferedImage image, boolean alpha, Path out) throws IOException {
+        if (alpha) {
+            if (!ImageIO.write(image, "png", out.toFile())) throw new IOException("No PNG writer");
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String baseName(String filename) {
+        String name = filename.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        return dot <= 0 ? name : name.substring(0, dot);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    public int queueDepth() { return pool.getQueue().size(); }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", pool.getQueue().size());
+        stats.put("active", pool.getActiveCount());
+        stats.put("generated", generated.get());
+        stats.put("failed", failed.get());
+        stats.put("skipped", skipped.get());
+        return stats;
+    }
+}
@@ -3,10 +3,15 @@ package com.example.backend;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "learning_materials")
+@Table(name = "learning_materials", indexes = {
+        @Index(name = "idx_materials_subject_type_module", columnList = "subject_code, type, module_id"),
+        @Index(name = "idx_materials_subject_module", columnList = "subject_code, module_id")
+})
 public class LearningMaterial {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "learning_materials_id")
+    @TableGenerator(name = "learning_materials_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "learning_materials", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -20,6 +25,10 @@ public class LearningMaterial {
     @Column(name = "module_id")
     private Long moduleId;
 
+    // SHA-256 of the uploaded file (see StoredBlob); null for quizzes and older uploads
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -38,4 +47,7 @@ public class LearningMaterial {
 
     public Long getModuleId() { return moduleId; }
     public void setModuleId(Long moduleId) { this.moduleId = moduleId; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.example.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,9 +14,18 @@ public interface LearningMaterialRepository extends JpaRepository<LearningMateri
     List<LearningMaterial> findBySubjectCodeAndType(String subjectCode, String type);
     List<LearningMaterial> findBySubjectCodeAndTypeAndModuleId(String subjectCode, String type, Long moduleId);
 
+    // Filtered in the database instead of findAll().stream().filter()
+    List<LearningMaterial> findBySubjectCode(String subjectCode);
+    List<LearningMaterial> findBySubjectCodeAndModuleId(String subjectCode, Long moduleId);
+
     // ✅ NEW: Count all materials where the Subject Code is in a specific list
     long countBySubjectCodeIn(List<String> subjectCodes);
 
     List<LearningMaterial> findBySubjectCodeIn(List<String> subjectCodes);
 
+    // Student home: every material of a course in one query
+    @Query("select new com.example.backend.MaterialSummary(m.id, m.title, m.type, m.filePath, m.subjectCode, m.moduleId) "
+            + "from LearningMaterial m where m.subjectCode in :codes order by m.id")
+    List<MaterialSummary> findSummariesBySubjectCodeIn(@Param("codes") Collection<String> subjectCodes);
+
 }
\ No newline at end of file
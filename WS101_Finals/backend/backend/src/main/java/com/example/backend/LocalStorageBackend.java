@@ -0,0 +1,104 @@
+package com.example.backend;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Self-hosted storage (app.storage.backend=local). Files are stored content-addressed as
+// <root>/<first 2 hex chars>/<sha256>.<ext> and served by ContentStoreController.
+// Since the name is the hash, an object never changes once written.
+@Service
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Pattern OBJECT_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,8})?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+
+    private final Path root;
+    private final String publicUrl;
+
+    public LocalStorageBackend(
+            @Value("${app.storage.local.root:uploads/objects}") String root,
+            @Value("${app.storage.local.public-url:}") String publicUrl
+    ) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath();
+        this.publicUrl = publicUrl;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public StoredObject store(Path file, String originalFilename) throws IOException {
+        String name = sha256(file) + extensionOf(originalFilename);
+        Path target = pathOf(name);
+
+        // Same content was stored before: nothing to write
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            // Copy next to the target then rename, so readers never see a half-written object
+            Path temp = Files.createTempFile(target.getParent(), name, ".part");
+            try {
+                Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return new StoredObject(name, publicUrl + "/api/files/" + name);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = resolve(key);
+        if (path != null) Files.deleteIfExists(path);
+    }
+
+    // Returns the on-disk path for an object name, or null if the name isn't one of ours
+    public Path resolve(String name) {
+        if (name == null || !OBJECT_NAME.matcher(name).matches()) return null;
+        return pathOf(name);
+    }
+
+    // The content hash is the object name without its extension
+    public static String hashOf(String name) {
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    private Path pathOf(String name) {
+        return root.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) return "";
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) return "";
+        String ext = filename.substring(dot + 1).toLowerCase();
+        return EXTENSION.matcher(ext).matches() ? "." + ext : "";
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
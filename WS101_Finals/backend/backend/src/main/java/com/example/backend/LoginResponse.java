@@ -0,0 +1,10 @@
+package com.example.backend;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.time.Instant;
+
+// What /api/auth/login returns: the user fields at the top level (as the frontends expect)
+// plus the access token to send back as "Authorization: Bearer <token>"
+public record LoginResponse(@JsonUnwrapped UserSummary user, String token, Instant expiresAt) {
+}
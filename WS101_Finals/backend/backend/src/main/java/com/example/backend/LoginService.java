@@ -0,0 +1,152 @@
+package com.example.backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+// Login and password hashing. Passwords are stored as BCrypt hashes (strength is tunable);
+// rows from before hashing still hold plaintext and are upgraded on their next good login.
+// The username lookup is cached for a short time so a login storm at exam time doesn't turn
+// into one SELECT per attempt; anything that changes a user must call userChanged().
+// BCrypt is the expensive part on purpose, so at most max-concurrent-hashes checks run at
+// once: the rest queue fairly instead of all slowing down together and starving other requests.
+@Service
+public class LoginService {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    // What a login needs: the stored hash to check and what the response shows
+    private record Credential(String passwordHash, UserSummary user) {}
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private ActivityLogWriter logWriter;
+
+    @Value("${app.auth.bcrypt-strength:10}")
+    private int strength;
+
+    @Value("${app.auth.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.auth.cache-size:20000}")
+    private long cacheSize;
+
+    // 0 = one less than the number of cores (at least 1)
+    @Value("${app.auth.max-concurrent-hashes:0}")
+    private int maxConcurrentHashes;
+
+    private PasswordEncoder encoder;
+    private Cache<String, Credential> credentials;
+    private Semaphore hashing;
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        encoder = new BCryptPasswordEncoder(strength);
+        credentials = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        int permits = maxConcurrentHashes > 0
+                ? maxConcurrentHashes
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        hashing = new Semaphore(permits, true);
+        dummyHash = encoder.encode("no such user");
+    }
+
+    // The user (without password) when the credentials match, otherwise null
+    public UserSummary login(String username, String password) {
+        if (username == null || password == null) return null;
+
+        // Unknown usernames aren't cached, so random names can't fill the cache
+        Credential credential = credentials.get(username, this::load);
+        if (credential == null) {
+            // Same work as a real check, so response times don't tell which usernames exist
+            matches(password, dummyHash);
+            return null;
+        }
+
+        String stored = credential.passwordHash();
+        if (isHashed(stored)) {
+            if (!matches(password, stored)) return null;
+        } else {
+            if (!MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8))) {
+                return null;
+            }
+            if (userRepository.upgradePassword(credential.user().id(), stored, hashPassword(password)) > 0) {
+                credentials.invalidate(username);
+            }
+        }
+
+        UserSummary user = credential.user();
+        logWriter.logIfRoom(user.username(), "User Logged In", user.role());
+        return user;
+    }
+
+    // For new and changed passwords. Values that already are BCrypt hashes (e.g. migrated
+    // from another system) are kept as they are.
+    public String hashPassword(String raw) {
+        if (raw == null || isHashed(raw)) return raw;
+        hashing.acquireUninterruptibly();
+        try {
+            return encoder.encode(raw);
+        } finally {
+            hashing.release();
+        }
+    }
+
+    // Drops the cached login data of a user that was created, deleted or changed
+    public void userChanged(String username) {
+        if (username != null) credentials.invalidate(username);
+    }
+
+    private Credential load(String username) {
+        User u = userRepository.findByUsername(username);
+        if (u == null) return null;
+        return new Credential(u.getPassword(), new UserSummary(u.getId(), u.getUsername(), u.getRole(),
+                u.getCourseId(), u.getProfileImage(), u.getProfileImageSrcset()));
+    }
+
+    private boolean matches(String raw, String hash) {
+        hashing.acquireUninterruptibly();
+        try {
+            return encoder.matches(raw, hash);
+        } finally {
+            hashing.release();
+        }
+    }
+
+    static boolean isHashed(String password) {
+        return password != null && BCRYPT.matcher(password).matches();
+    }
+
+    Cache<String, ?> cache() { return credentials; }
+
+    int hashesWaiting() { return hashing.getQueueLength(); }
+
+    public Map<String, Object> cacheStats() {
+        CacheStats stats = credentials.stats();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("size", credentials.estimatedSize());
+        entry.put("hits", stats.hitCount());
+        entry.put("misses", stats.missCount());
+        entry.put("hitRate", stats.hitRate());
+        entry.put("evictions", stats.evictionCount());
+        entry.put("hashesWaiting", hashesWaiting());
+        return entry;
+    }
+}
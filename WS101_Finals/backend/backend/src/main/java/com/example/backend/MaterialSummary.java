@@ -0,0 +1,5 @@
+package com.example.backend;
+
+// Learning material as listed on student pages (no storage bookkeeping columns)
+public record MaterialSummary(Long id, String title, String type, String filePath, String subjectCode, Long moduleId) {
+}
@@ -0,0 +1,52 @@
+package com.example.backend;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Text pulled out of a lesson file (PDF/PPTX/DOCX) by TextExtractionService.
+// Kept so the search index can be rebuilt after a restart without the original file.
+@Entity
+@Table(name = "material_texts")
+public class MaterialText {
+
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+    public static final String TIMEOUT = "TIMEOUT";
+    public static final String SKIPPED = "SKIPPED";
+
+    @Id
+    @Column(name = "material_id")
+    private Long materialId;
+
+    @Column(length = 20, nullable = false)
+    private String status;
+
+    @Lob
+    @Column(name = "content", columnDefinition = "LONGTEXT")
+    private String text;
+
+    @Column(length = 500)
+    private String error;
+
+    private boolean truncated;
+
+    private LocalDateTime extractedAt;
+
+    public MaterialText() {}
+
+    public MaterialText(Long materialId, String status, String text, boolean truncated, String error) {
+        this.materialId = materialId;
+        this.status = status;
+        this.text = text;
+        this.truncated = truncated;
+        this.error = error == null || error.length() <= 500 ? error : error.substring(0, 500);
+        this.extractedAt = LocalDateTime.now();
+    }
+
+    public Long getMaterialId() { return materialId; }
+    public String getStatus() { return status; }
+    public String getText() { return text; }
+    public String getError() { return error; }
+    public boolean isTruncated() { return truncated; }
+    public LocalDateTime getExtractedAt() { return extractedAt; }
+}
@@ -0,0 +1,19 @@
+package com.example.backend;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.util.stream.Stream;
+
+@Repository
+public interface MaterialTextRepository extends JpaRepository<MaterialText, Long> {
+
+    // Search index rebuild: streamed, the texts can add up to a lot
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "50"))
+    @Query("select t from MaterialText t where t.status = 'DONE'")
+    Stream<MaterialText> streamExtracted();
+}
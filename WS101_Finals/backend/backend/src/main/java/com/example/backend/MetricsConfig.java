@@ -0,0 +1,66 @@
+package com.example.backend;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// App-specific meters, next to what Spring Boot records by itself (HTTP latency per endpoint,
+// repository invocations, Hikari pool, JVM heap/GC, the catalog caches). Scraped from
+// /actuator/prometheus; percentiles are set in application.properties (section 15).
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder backgroundWorkMetrics(ActivityLogWriter logWriter, TextExtractionService extraction,
+                                      ImageDerivativeService images, LoginService loginService,
+                                      DataSource dataSource) {
+        return registry -> {
+            // Activity log writer
+            Gauge.builder("app.activity_log.queue", logWriter, ActivityLogWriter::queueDepth)
+                    .description("Entries waiting to be written").register(registry);
+            FunctionCounter.builder("app.activity_log.entries", logWriter, ActivityLogWriter::written)
+                    .tag("outcome", "written").register(registry);
+            FunctionCounter.builder("app.activity_log.entries", logWriter, ActivityLogWriter::dropped)
+                    .tag("outcome", "dropped").register(registry);
+            FunctionCounter.builder("app.activity_log.entries", logWriter, ActivityLogWriter::failed)
+                    .tag("outcome", "failed").register(registry);
+
+            // Lesson text extraction and image variants
+            Gauge.builder("app.extraction.queue", extraction, TextExtractionService::queueDepth).register(registry);
+            outcomes(registry, "app.extraction.files", extraction, TextExtractionService::stats, List.of("extracted", "failed", "timedOut", "skipped"));
+            Gauge.builder("app.images.queue", images, ImageDerivativeService::queueDepth).register(registry);
+            outcomes(registry, "app.images.files", images, ImageDerivativeService::stats, List.of("generated", "failed", "skipped"));
+
+            // Login: credential cache and BCrypt checks waiting for a permit
+            CaffeineCacheMetrics.monitor(registry, loginService.cache(), "credentials");
+            Gauge.builder("app.login.hashes_waiting", loginService, LoginService::hashesWaiting).register(registry);
+
+            // Requests queued for a database connection (only with app.db.limit-concurrency)
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("app.db.waiting", limited, ConcurrencyLimitedDataSource::waiting).register(registry);
+                Gauge.builder("app.db.in_use", limited, ConcurrencyLimitedDataSource::inUse).register(registry);
+                FunctionCounter.builder("app.db.timeouts", limited, ConcurrencyLimitedDataSource::timeouts).register(registry);
+            }
+        };
+    }
+
+    // One counter per outcome, read from the service's stats() map at scrape time
+    // (the service is the meter's state object: meters only hold it weakly)
+    private static <T> void outcomes(MeterRegistry registry, String name, T service,
+                                     Function<T, Map<String, Object>> stats, List<String> keys) {
+        for (String key : keys) {
+            FunctionCounter.builder(name, service, s -> ((Number) stats.apply(s).get(key)).doubleValue())
+                    .tag("outcome", key)
+                    .register(registry);
+        }
+    }
+}
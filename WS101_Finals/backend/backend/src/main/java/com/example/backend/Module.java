@@ -3,10 +3,14 @@ package com.example.backend;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "modules")
+@Table(name = "modules", indexes = {
+        @Index(name = "idx_modules_subject_number", columnList = "subject_code, module_number")
+})
 public class Module {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "modules_id")
+    @TableGenerator(name = "modules_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "modules", allocationSize = 50)
     private Long id;
 
     private String title;       // e.g., "Introduction to Java"
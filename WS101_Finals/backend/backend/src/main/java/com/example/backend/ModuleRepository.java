@@ -2,9 +2,13 @@ package com.example.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, Long> {
     List<Module> findBySubjectCodeOrderByModuleNumberAsc(String subjectCode);
+
+    // Student home: every module of a course in one query
+    List<Module> findBySubjectCodeInOrderByModuleNumberAsc(Collection<String> subjectCodes);
 }
\ No newline at end of file
@@ -1,14 +1,20 @@
 package com.example.backend;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.core.JacksonException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/professor")
@@ -23,33 +29,31 @@ public class ProfessorController {
     @Autowired private CourseRepository courseRepository;
     @Autowired private ModuleRepository moduleRepository;
     @Autowired private UserRepository userRepository;
-    @Autowired private ActivityLogRepository logRepository;
-    @Autowired private CloudinaryService cloudinaryService;
+    @Autowired private ActivityLogWriter logWriter;
+    @Autowired private UploadService uploadService;
+    @Autowired private CatalogService catalogService;
+    @Autowired private CourseStatsService courseStats;
+    @Autowired private BulkImportService bulkImportService;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private SearchIndex searchIndex;
+    @Autowired private TextExtractionService textExtraction;
+    @Autowired private MaterialTextRepository materialTextRepository;
 
     // ==========================================
     // 1. DASHBOARD STATS
     // ==========================================
     @GetMapping("/stats")
     public Map<String, Long> getStats(@RequestParam(required = false) String courseId) {
-        Map<String, Long> stats = new HashMap<>();
-
+        // Served from memory, see CourseStatsService
         if (courseId != null && !courseId.isEmpty() && !courseId.equals("null")) {
-            stats.put("students", userRepository.countByRoleAndCourseId("student", courseId));
-            List<String> subjects = subjectRepository.findByCourseId(courseId)
-                    .stream().map(Subject::getCode).collect(Collectors.toList());
-
-            if (!subjects.isEmpty()) {
-                stats.put("subjects", (long) subjects.size());
-                stats.put("lessons", materialRepository.countBySubjectCodeIn(subjects));
-            } else {
-                stats.put("subjects", 0L);
-                stats.put("lessons", 0L);
-            }
-        } else {
-            stats.put("students", 0L);
-            stats.put("subjects", 0L);
-            stats.put("lessons", 0L);
+            return courseStats.getStats(courseId);
         }
+
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("students", 0L);
+        stats.put("subjects", 0L);
+        stats.put("lessons", 0L);
+        stats.put("quizzes", 0L);
         return stats;
     }
 
@@ -59,7 +63,7 @@ public class ProfessorController {
     @GetMapping("/subjects")
     public List<Subject> getSubjects(@RequestParam(required = false) String courseId) {
         if (courseId != null && !courseId.isEmpty()) {
-            return subjectRepository.findByCourseId(courseId);
+            return catalogService.getSubjectsByCourse(courseId, catalogService.version(CatalogService.subjectsOf(courseId)));
         }
         return new ArrayList<>();
     }
@@ -70,9 +74,7 @@ public class ProfessorController {
     @GetMapping("/quizzes")
     public List<Quiz> getQuizzes(@RequestParam(required = false) String subjectCode) {
         if (subjectCode != null && !subjectCode.isEmpty()) {
-            return quizRepository.findAll().stream()
-                    .filter(q -> q.getSubjectCode().equals(subjectCode))
-                    .collect(Collectors.toList());
+            return quizRepository.findBySubjectCode(subjectCode);
         }
         return quizRepository.findAll();
     }
@@ -93,7 +95,6 @@ public class ProfessorController {
             quiz.setTitle(title);
             quiz.setSubjectCode(subjectCode);
             quiz.setDateCreated(LocalDate.now());
-            quizRepository.save(quiz);
 
             // 2. Save as Learning Material
             LearningMaterial mat = new LearningMaterial();
@@ -103,9 +104,17 @@ public class ProfessorController {
             mat.setFilePath(link);
             if (moduleId != null) mat.setModuleId(moduleId);
 
-            materialRepository.save(mat);
+            // One transaction; ids are pre-allocated, so both inserts go out at commit
+            transactionTemplate.executeWithoutResult(status -> {
+                quizRepository.save(quiz);
+                materialRepository.save(mat);
+            });
+            courseStats.quizCreated(subjectCode);
+            courseStats.materialCreated(subjectCode);
+            catalogService.materialsChanged(subjectCode);
+            searchIndex.indexMaterial(mat);
 
-            logRepository.save(new ActivityLog("Professor", "Created Quiz: " + title, "professor"));
+            logWriter.log("Professor", "Created Quiz: " + title, "professor");
 
             return ResponseEntity.ok("Quiz Created");
         } catch (Exception e) {
@@ -120,8 +129,9 @@ public class ProfessorController {
 
         Quiz q = quizRepository.findById(id).get();
         quizRepository.deleteById(id);
+        courseStats.quizDeleted(q.getSubjectCode());
 
-        logRepository.save(new ActivityLog("Professor", "Deleted Quiz: " + q.getTitle(), "professor"));
+        logWriter.log("Professor", "Deleted Quiz: " + q.getTitle(), "professor");
         return ResponseEntity.ok("Quiz deleted successfully");
     }
 
@@ -138,16 +148,13 @@ public class ProfessorController {
     ) {
         // 1. If a specific subject is requested (filtering), return just that
         if (subjectCode != null && !subjectCode.isEmpty()) {
-            return materialRepository.findAll().stream()
-                    .filter(m -> m.getSubjectCode().equals(subjectCode))
-                    .collect(Collectors.toList());
+            return materialRepository.findBySubjectCode(subjectCode);
         }
 
         // 2. ✅ NEW: If Course ID is provided, return only materials for that course
         if (courseId != null && !courseId.isEmpty()) {
             // Get all subjects belonging to this course (e.g., all BS BIO subjects)
-            List<String> subjects = subjectRepository.findByCourseId(courseId)
-                    .stream().map(Subject::getCode).collect(Collectors.toList());
+            List<String> subjects = subjectRepository.findCodesByCourseId(courseId);
 
             if (subjects.isEmpty()) return new ArrayList<>(); // No subjects = No materials
 
@@ -166,8 +173,14 @@ public class ProfessorController {
 
         LearningMaterial m = materialRepository.findById(id).get();
         materialRepository.deleteById(id);
-
-        logRepository.save(new ActivityLog("Professor", "Deleted Lesson: " + m.getTitle(), "professor"));
+        courseStats.materialDeleted(m.getSubjectCode());
+        catalogService.materialsChanged(m.getSubjectCode());
+        searchIndex.removeMaterial(id);
+        if (materialTextRepository.existsById(id)) materialTextRepository.deleteById(id);
+        // Removes the stored file only if no other lesson uses the same content
+        uploadService.releaseContent(m.getContentHash());
+
+        logWriter.log("Professor", "Deleted Lesson: " + m.getTitle(), "professor");
         return ResponseEntity.ok("Lesson deleted successfully");
     }
 
@@ -177,40 +190,93 @@ public class ProfessorController {
             return ResponseEntity.badRequest().body("Subject Code is required");
         }
         Module saved = moduleRepository.save(module);
-        logRepository.save(new ActivityLog("Professor", "Created Module " + module.getModuleNumber(), "professor"));
+        catalogService.modulesChanged(saved.getSubjectCode());
+        searchIndex.indexModule(saved);
+        logWriter.log("Professor", "Created Module " + module.getModuleNumber(), "professor");
         return ResponseEntity.ok(saved);
     }
 
+    // CSV (header: subjectCode,moduleNumber,title,description,status) or a JSON array of modules
+    @PostMapping(value = "/modules/bulk", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<?> importModules(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(bulkImportService.importModules(request.getInputStream(), request.getContentType()));
+        } catch (IllegalArgumentException | JacksonException | UncheckedIOException e) {
+            return ResponseEntity.badRequest().body("Could not read import: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/upload")
     public ResponseEntity<?> uploadLesson(
-            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "uploadSession", required = false) String uploadSession,
             @RequestParam("title") String title,
             @RequestParam("subjectCode") String subjectCode,
             @RequestParam(value = "moduleId", required = false) Long moduleId
     ) {
+        // Either a normal multipart file or a finished chunked upload (see UploadController)
+        UploadSession session = uploadSession != null ? uploadService.getSession(uploadSession) : null;
+        if (file == null && session == null) {
+            return ResponseEntity.badRequest().body("A file or a completed upload session is required");
+        }
+        if (session != null && !session.isComplete()) {
+            return ResponseEntity.badRequest().body("Upload session is not complete yet");
+        }
+
         try {
-            // ✅ 2. REPLACE THE OLD "Files.copy" LOGIC WITH THIS:
-            String onlineUrl = cloudinaryService.uploadFile(file);
+            String originalName = file != null ? file.getOriginalFilename() : session.getFilename();
 
             LearningMaterial material = new LearningMaterial();
             material.setTitle(title);
             material.setSubjectCode(subjectCode);
-
-            // Save the Cloud URL instead of a local filename
-            material.setFilePath(onlineUrl);
-
-            material.setType(determineType(file.getOriginalFilename())); // Pass original name for type check
+            material.setType(determineType(originalName)); // Pass original name for type check
             if (moduleId != null) material.setModuleId(moduleId);
 
-            materialRepository.save(material);
-            logRepository.save(new ActivityLog("Professor", "Uploaded Lesson: " + title, "professor"));
+            LearningMaterial saved = materialRepository.save(material);
+            courseStats.materialCreated(subjectCode);
+            catalogService.materialsChanged(subjectCode);
+            searchIndex.indexMaterial(saved);
+
+            // The file goes to storage in the background; filePath is filled in with the URL when it is done
+            Consumer<StoredObject> onStored = stored -> {
+                materialRepository.findById(saved.getId()).ifPresentOrElse(m -> {
+                    m.setFilePath(stored.url());
+                    m.setContentHash(stored.contentHash());
+                    materialRepository.save(m);
+                    catalogService.materialsChanged(subjectCode);
+                }, () -> uploadService.releaseContent(stored.contentHash())); // deleted while uploading
+            };
+            // PDF/PPTX/DOCX text is extracted from the local copy afterwards, for search
+            BiConsumer<StoredObject, Path> onSpooled = (stored, spooled) -> textExtraction.submit(saved.getId(), originalName, spooled);
+            // Storage gave up (or the row couldn't be updated): don't leave a lesson without a file
+            Runnable onFailed = () -> discardLesson(saved.getId(), subjectCode);
+            UploadJob job;
+            try {
+                job = file != null
+                        ? uploadService.submit(file, onStored, onSpooled, onFailed)
+                        : uploadService.submitSession(uploadSession, onStored, onSpooled, onFailed);
+            } catch (IOException | RuntimeException e) {
+                // Couldn't even spool the file
+                discardLesson(saved.getId(), subjectCode);
+                throw e;
+            }
+            logWriter.log("Professor", "Uploaded Lesson: " + title, "professor");
 
-            return ResponseEntity.ok("File uploaded successfully");
+            return ResponseEntity.accepted().body(Map.of("message", "File uploaded successfully", "jobId", job.getId()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
         }
     }
 
+    // Undoes the lesson row saved before its upload, unless it was deleted meanwhile
+    private void discardLesson(Long id, String subjectCode) {
+        if (!materialRepository.existsById(id)) return;
+        materialRepository.deleteById(id);
+        courseStats.materialDeleted(subjectCode);
+        catalogService.materialsChanged(subjectCode);
+        searchIndex.removeMaterial(id);
+    }
+
     private String determineType(String fileName) {
         String name = fileName.toLowerCase();
         if (name.endsWith(".pdf")) return "pdf";
@@ -226,12 +292,15 @@ public class ProfessorController {
     @DeleteMapping("/modules/{id}")
     public ResponseEntity<?> deleteModule(@PathVariable Long id) {
         try {
-            if (!moduleRepository.existsById(id)) {
+            Module module = moduleRepository.findById(id).orElse(null);
+            if (module == null) {
                 return ResponseEntity.notFound().build();
             }
             // Optional: Delete all materials inside this module first?
             // For now, we just delete the module. Materials will become "orphan" or you can delete them too.
             moduleRepository.deleteById(id);
+            catalogService.modulesChanged(module.getSubjectCode());
+            searchIndex.removeModule(id);
 
             return ResponseEntity.ok("Module deleted successfully");
         } catch (Exception e) {
@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "quizzes")
+@Table(name = "quizzes", indexes = {
+        @Index(name = "idx_quizzes_subject", columnList = "subject_code")
+})
 public class Quiz {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "quizzes_id")
+    @TableGenerator(name = "quizzes_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "quizzes", allocationSize = 50)
     private Long id;
 
     private String title;
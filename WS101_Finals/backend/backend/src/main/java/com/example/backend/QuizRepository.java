@@ -2,7 +2,15 @@ package com.example.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
-}
\ No newline at end of file
+    // Filtered in the database so we never load the whole quizzes table
+    List<Quiz> findBySubjectCode(String subjectCode);
+
+    List<Quiz> findBySubjectCodeIn(Collection<String> subjectCodes);
+
+    long countBySubjectCodeIn(Collection<String> subjectCodes);
+}
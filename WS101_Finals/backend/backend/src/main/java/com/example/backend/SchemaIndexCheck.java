@@ -0,0 +1,77 @@
+package com.example.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Fails startup if an index the hot lookups depend on is missing,
+// instead of silently falling back to full table scans.
+@Component
+public class SchemaIndexCheck implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaIndexCheck.class);
+
+    // table -> indexes created by db/migration/V2__lookup_indexes.sql
+    static final Map<String, List<String>> EXPECTED_INDEXES = Map.of(
+            "learning_materials", List.of("idx_materials_subject_type_module", "idx_materials_subject_module"),
+            "modules", List.of("idx_modules_subject_number"),
+            "subjects", List.of("idx_subjects_course"),
+            "quizzes", List.of("idx_quizzes_subject"),
+            "users", List.of("idx_users_role_course"),
+            "activity_logs", List.of("idx_activity_logs_timestamp")
+    );
+
+    @Autowired private DataSource dataSource;
+
+    @Value("${app.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (!enabled) return;
+
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData meta = connection.getMetaData();
+            for (Map.Entry<String, List<String>> entry : EXPECTED_INDEXES.entrySet()) {
+                Set<String> present = indexesOf(meta, connection, entry.getKey());
+                for (String index : entry.getValue()) {
+                    if (!present.contains(index)) missing.add(entry.getKey() + "." + index);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes " + missing
+                    + " - run the Flyway migrations in db/migration before starting the backend");
+        }
+        log.info("Schema index check passed ({} tables)", EXPECTED_INDEXES.size());
+    }
+
+    private Set<String> indexesOf(DatabaseMetaData meta, Connection connection, String table) throws SQLException {
+        String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        Set<String> indexes = new HashSet<>();
+        try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                if (index != null) indexes.add(index.toLowerCase());
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired private SearchIndex searchIndex;
+
+    // e.g. /api/search?q=intro jva&courseId=BSIT  (answered from memory, see SearchIndex)
+    @GetMapping
+    public List<SearchIndex.Hit> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String courseId,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        String scope = courseId == null || courseId.isBlank() ? null : courseId;
+        return searchIndex.search(query, scope, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// In-memory inverted index over subject titles, module titles/descriptions, lesson titles and
+// the text extracted from lesson files (see TextExtractionService).
+// Built from the database once at startup, then kept current by the same create/update/delete
+// handlers that invalidate the catalog cache. Queries never touch MySQL.
+//
+// Every query word must match a word of the document, either exactly, as a prefix
+// ("intro" -> "introduction") or, for longer words, with one or two typos ("jaba" -> "java",
+// the first letter has to be right).
+@Service
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    public enum Type { SUBJECT, MODULE, MATERIAL }
+
+    public record Hit(Type type, String id, String title, String subjectCode, double score) {}
+
+    // One searchable thing; terms = title words plus the other searchable words (descriptions, codes)
+    private record Doc(Type type, String id, String title, String subjectCode, Set<String> titleTerms, Set<String> terms) {}
+
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private MaterialTextRepository textRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @PersistenceContext private EntityManager entityManager;
+
+    private final Map<String, Doc> docs = new ConcurrentHashMap<>();
+    // term -> keys of the documents containing it; sorted so prefixes are a range scan
+    private final NavigableMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    // Modules and lessons are scoped to a course through their subject
+    private final Map<String, String> courseOfSubject = new ConcurrentHashMap<>();
+    // Words from lesson file contents, kept apart so re-indexing a lesson's title keeps them
+    private final Map<String, Set<String>> contentTerms = new ConcurrentHashMap<>();
+
+    // ==========================================
+    // BUILDING
+    // ==========================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            docs.clear();
+            postings.clear();
+            courseOfSubject.clear();
+            contentTerms.clear();
+        }
+        subjectRepository.findAll().forEach(this::indexSubject);
+        moduleRepository.findAll().forEach(this::indexModule);
+        materialRepository.findAll().forEach(this::indexMaterial);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<MaterialText> texts = textRepository.streamExtracted()) {
+                texts.forEach(t -> {
+                    indexMaterialText(t.getMaterialId(), t.getText());
+                    entityManager.detach(t);
+                });
+            }
+        });
+        log.info("Search index built: {} documents, {} terms in {} ms",
+                docs.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void indexSubject(Subject s) {
+        if (s.getCourseId() != null) courseOfSubject.put(s.getCode(), s.getCourseId());
+        put(Type.SUBJECT, s.getCode(), s.getTitle(), s.getCode(), s.getCode());
+    }
+
+    public void indexModule(Module m) {
+        put(Type.MODULE, String.valueOf(m.getId()), m.getTitle(), m.getSubjectCode(), m.getDescription());
+    }
+
+    public void indexMaterial(LearningMaterial m) {
+        put(Type.MATERIAL, String.valueOf(m.getId()), m.getTitle(), m.getSubjectCode(), null);
+    }
+
+    // The subject's modules and lessons go with it. A full scan, but subjects are rarely deleted.
+    public synchronized void removeSubject(String code) {
+        remove(Type.SUBJECT, code);
+        for (Doc doc : List.copyOf(docs.values())) {
+            if (doc.type() != Type.SUBJECT && code.equals(doc.subjectCode())) {
+                remove(doc.type(), doc.id());
+                contentTerms.remove(key(doc.type(), doc.id()));
+            }
+        }
+        courseOfSubject.remove(code);
+    }
+
+    public void removeModule(Long id) { remove(Type.MODULE, String.valueOf(id)); }
+    public void removeMaterial(Long id) {
+        remove(Type.MATERIAL, String.valueOf(id));
+        contentTerms.remove(key(Type.MATERIAL, String.valueOf(id)));
+    }
+
+    // Adds the words of a lesson's file to its document (searchable, not shown)
+    public synchronized void indexMaterialText(Long id, String text) {
+        String key = key(Type.MATERIAL, String.valueOf(id));
+        contentTerms.put(key, tokenize(text));
+        Doc doc = docs.get(key);
+        if (doc != null) put(Type.MATERIAL, doc.id(), doc.title(), doc.subjectCode(), null);
+    }
+
+    private synchronized void put(Type type, String id, String title, String subjectCode, String text) {
+        String key = key(type, id);
+        remove(type, id);
+
+        Set<String> titleTerms = tokenize(title);
+        Set<String> terms = new LinkedHashSet<>(titleTerms);
+        terms.addAll(tokenize(text));
+        terms.addAll(contentTerms.getOrDefault(key, Set.of()));
+        if (terms.isEmpty()) return;
+
+        docs.put(key, new Doc(type, id, title, subjectCode, titleTerms, terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private synchronized void remove(Type type, String id) {
+        Doc old = docs.remove(key(type, id));
+        if (old == null) return;
+        for (String term : old.terms()) {
+            Set<String> keys = postings.get(term);
+            if (keys == null) continue;
+            keys.remove(key(type, id));
+            if (keys.isEmpty()) postings.remove(term);
+        }
+    }
+
+    // ==========================================
+    // SEARCHING
+    // ==========================================
+    public List<Hit> search(String query, String courseId, int limit) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty()) return List.of();
+
+        // Score per document; a document has to match every query word
+        Map<String, Double> scores = null;
+        for (String word : words) {
+            Map<String, Double> matches = match(word);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                for (Map.Entry<String, Double> e : scores.entrySet()) e.setValue(e.getValue() + matches.get(e.getKey()));
+            }
+            if (scores.isEmpty()) return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Map.Entry<String, Double> e : scores.entrySet()) {
+            Doc doc = docs.get(e.getKey());
+            if (doc == null) continue; // removed meanwhile
+            if (courseId != null && !courseId.equals(courseOfSubject.get(doc.subjectCode()))) continue;
+            hits.add(new Hit(doc.type(), doc.id(), doc.title(), doc.subjectCode(), e.getValue()));
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::title, Comparator.nullsLast(String::compareTo)));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    // Documents matching one query word, with the best score each got for it
+    private Map<String, Double> match(String word) {
+        Map<String, Double> result = new HashMap<>();
+
+        // Exact and prefix matches are a range of the sorted term map
+        for (Map.Entry<String, Set<String>> e : postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            double weight = e.getKey().equals(word) ? 3.0 : 2.0;
+            add(result, e.getKey(), e.getValue(), weight);
+        }
+
+        // Typos: only for words long enough that one wrong letter still means something.
+        // Candidates share the first letter, which keeps the scan to a small slice of the terms.
+        int maxEdits = word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            String first = word.substring(0, 1);
+            for (Map.Entry<String, Set<String>> e : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String term = e.getKey();
+                if (Math.abs(term.length() - word.length()) > maxEdits || term.startsWith(word)) continue;
+                int distance = editDistance(word, term, maxEdits);
+                if (distance <= maxEdits) add(result, term, e.getValue(), 1.0 / distance);
+            }
+        }
+        return result;
+    }
+
+    private void add(Map<String, Double> result, String term, Set<String> keys, double weight) {
+        for (String key : keys) {
+            Doc doc = docs.get(key);
+            // Words in the title count double
+            double score = doc != null && doc.titleTerms().contains(term) ? weight * 2 : weight;
+            result.merge(key, score, Math::max);
+        }
+    }
+
+    // Levenshtein distance, giving up (returning max + 1) once it can't stay within max
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    // Lower case, accents stripped, split on anything that isn't a letter or digit
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) return terms;
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) terms.add(token);
+        }
+        return terms;
+    }
+
+    private static String key(Type type, String id) { return type + ":" + id; }
+
+    public int size() { return docs.size(); }
+}
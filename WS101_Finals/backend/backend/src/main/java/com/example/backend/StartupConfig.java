@@ -0,0 +1,24 @@
+package com.example.backend;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Beans created at startup even with spring.main.lazy-initialization (fast-start profile).
+// @Scheduled jobs only get scheduled once their bean exists, the log writer and search index
+// run in the background from the start, and login/tokens are what the first visitor needs
+// (this also boots Hibernate up front instead of during that first login).
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                CourseStatsService.class,
+                UploadService.class,
+                ActivityLogWriter.class,
+                SearchIndex.class,
+                LoginService.class,
+                TokenService.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.backend;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Where uploaded files end up. UploadService only talks to this interface,
+// so tests (or a self-hosted deployment) can plug in something other than Cloudinary.
+public interface StorageBackend {
+
+    // Stores a file that has already been spooled to local disk
+    StoredObject store(Path file, String originalFilename) throws IOException;
+
+    // Removes a stored object by the key returned from store()
+    void delete(String key) throws IOException;
+}
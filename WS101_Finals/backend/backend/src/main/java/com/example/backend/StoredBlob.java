@@ -0,0 +1,61 @@
+package com.example.backend;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Dedup index: one row per distinct uploaded file content (SHA-256), pointing at the
+// object in the storage backend. refCount is how many learning materials use it.
+@Entity
+@Table(name = "stored_blobs")
+public class StoredBlob {
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "storage_key", length = 512, nullable = false)
+    private String storageKey;
+
+    @Column(length = 1024, nullable = false)
+    private String url;
+
+    private long size;
+
+    @Column(name = "ref_count")
+    private int refCount;
+
+    private LocalDateTime createdAt;
+
+    public StoredBlob() {}
+
+    public StoredBlob(String contentHash, long size, StoredObject stored) {
+        this.contentHash = contentHash;
+        this.storageKey = stored.key();
+        this.url = stored.url();
+        this.size = size;
+        this.refCount = 1;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    StoredObject toStoredObject() {
+        return new StoredObject(storageKey, url, contentHash);
+    }
+
+    // Getters and Setters
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,14 @@
+package com.example.backend;
+
+// Result of StorageBackend.store(): the backend's own key (for delete) and the public URL.
+// contentHash is the SHA-256 of the content, filled in by UploadService.
+public record StoredObject(String key, String url, String contentHash) {
+
+    public StoredObject(String key, String url) {
+        this(key, url, null);
+    }
+
+    StoredObject withContentHash(String hash) {
+        return new StoredObject(key, url, hash);
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/student")
@@ -17,20 +20,18 @@ public class StudentController {
     @Autowired private LearningMaterialRepository materialRepository;
 
     @Autowired private ActivityLogRepository logRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private CatalogService catalogService;
 
     // Existing Quiz Method (Keep this)
     @GetMapping("/quizzes")
     public List<Quiz> getStudentQuizzes(@RequestParam String courseId) {
-        List<String> subjectCodes = subjectRepository.findByCourseId(courseId)
-                .stream()
-                .map(Subject::getCode)
-                .collect(Collectors.toList());
+        List<String> subjectCodes = subjectRepository.findCodesByCourseId(courseId);
 
         if (subjectCodes.isEmpty()) return List.of();
 
-        return quizRepository.findAll().stream()
-                .filter(q -> subjectCodes.contains(q.getSubjectCode()))
-                .collect(Collectors.toList());
+        return quizRepository.findBySubjectCodeIn(subjectCodes);
     }
 
     // ==========================================
@@ -48,11 +49,7 @@ public class StudentController {
                 return materialRepository.findBySubjectCodeAndTypeAndModuleId(subjectCode, type, moduleId);
             }
             // If no type specified, return everything for that module
-            return materialRepository.findAll().stream()
-                    .filter(m -> m.getSubjectCode().equals(subjectCode) &&
-                            m.getModuleId() != null &&
-                            m.getModuleId().equals(moduleId))
-                    .collect(Collectors.toList());
+            return materialRepository.findBySubjectCodeAndModuleId(subjectCode, moduleId);
         }
 
         // Logic to filter just by Subject and Type (e.g., all PDFs for a subject)
@@ -63,4 +60,52 @@ public class StudentController {
         return List.of();
     }
 
-}
\ No newline at end of file
+    // ==========================================
+    // 3. STUDENT HOME (course + subjects + modules + materials in one call)
+    // ==========================================
+    // Always 5 queries at most (course, subject list version, subjects, modules, materials),
+    // however many subjects the course has; the subject list usually comes from the catalog cache.
+    @GetMapping("/home")
+    public ResponseEntity<StudentHome> getHome(
+            @RequestParam String courseId,
+            @RequestParam(required = false) Integer yearLevel,
+            @RequestParam(required = false) Integer semester
+    ) {
+        CourseSummary course = courseRepository.findSummaryById(courseId);
+        if (course == null) return ResponseEntity.notFound().build();
+
+        List<Subject> subjects = new ArrayList<>();
+        long subjectsVersion = catalogService.version(CatalogService.subjectsOf(courseId));
+        for (Subject s : catalogService.getSubjectsByCourse(courseId, subjectsVersion)) {
+            if (yearLevel != null && s.getYearLevel() != yearLevel) continue;
+            if (semester != null && s.getSemester() != semester) continue;
+            subjects.add(s);
+        }
+        if (subjects.isEmpty()) return ResponseEntity.ok(new StudentHome(course, List.of()));
+
+        List<String> codes = subjects.stream().map(Subject::getCode).toList();
+        Map<String, List<Module>> modulesBySubject = new HashMap<>();
+        for (Module m : moduleRepository.findBySubjectCodeInOrderByModuleNumberAsc(codes)) {
+            modulesBySubject.computeIfAbsent(m.getSubjectCode(), k -> new ArrayList<>()).add(m);
+        }
+        Map<Long, List<MaterialSummary>> materialsByModule = new HashMap<>();
+        Map<String, List<MaterialSummary>> looseMaterials = new HashMap<>();
+        for (MaterialSummary m : materialRepository.findSummariesBySubjectCodeIn(codes)) {
+            if (m.moduleId() != null) {
+                materialsByModule.computeIfAbsent(m.moduleId(), k -> new ArrayList<>()).add(m);
+            } else {
+                looseMaterials.computeIfAbsent(m.subjectCode(), k -> new ArrayList<>()).add(m);
+            }
+        }
+
+        List<StudentHome.SubjectEntry> entries = new ArrayList<>();
+        for (Subject s : subjects) {
+            List<StudentHome.ModuleEntry> modules = new ArrayList<>();
+            for (Module m : modulesBySubject.getOrDefault(s.getCode(), List.of())) {
+                modules.add(new StudentHome.ModuleEntry(m, materialsByModule.getOrDefault(m.getId(), List.of())));
+            }
+            entries.add(new StudentHome.SubjectEntry(s, modules, looseMaterials.getOrDefault(s.getCode(), List.of())));
+        }
+        return ResponseEntity.ok(new StudentHome(course, entries));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend;
+
+import java.util.List;
+
+// Everything the student dashboard needs for one course, returned by GET /api/student/home
+public record StudentHome(CourseSummary course, List<SubjectEntry> subjects) {
+
+    // materials = lessons not attached to any module
+    public record SubjectEntry(Subject subject, List<ModuleEntry> modules, List<MaterialSummary> materials) {}
+
+    public record ModuleEntry(Module module, List<MaterialSummary> materials) {}
+}
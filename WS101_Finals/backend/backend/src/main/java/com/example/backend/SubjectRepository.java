@@ -1,10 +1,24 @@
 package com.example.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface SubjectRepository extends JpaRepository<Subject, String> {
 
     // ✅ THIS IS THE MISSING LINE FIXING THE ERROR:
     List<Subject> findByCourseId(String courseId);
-}
\ No newline at end of file
+
+    // Only the codes, for IN-list lookups (no need to load whole Subject rows)
+    @Query("select s.code from Subject s where s.courseId = :courseId")
+    List<String> findCodesByCourseId(@Param("courseId") String courseId);
+
+    @Query("select s.courseId from Subject s where s.code = :code")
+    String findCourseIdByCode(@Param("code") String code);
+
+    // Set-based existence check for bulk imports (one query per chunk)
+    @Query("select s.code from Subject s where s.code in :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+}
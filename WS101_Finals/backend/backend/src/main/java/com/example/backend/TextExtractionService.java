@@ -0,0 +1,412 @@
+package com.example.backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.util.XMLHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pulls the text out of uploaded lessons (PDF, PPTX, DOCX) so SearchIndex can find them by content.
+// Runs after the upload has been stored: UploadService hands over the spooled file, which is
+// moved into our own work directory, so the upload itself never waits for extraction.
+// Extraction is CPU heavy, so it gets a small fixed pool of platform threads with a bounded
+// queue (a full queue skips the file rather than blocking). Each file has a time limit and
+// bounded memory: PDFBox buffers in temp files, DOCX/PPTX parts are read as a stream of SAX
+// events (never a whole document tree) from zip entries capped at max-zip-entry-bytes, and
+// the text kept is capped at max-chars, all checked while reading.
+@Service
+public class TextExtractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TextExtractionService.class);
+
+    @Autowired private MaterialTextRepository textRepository;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private SearchIndex searchIndex;
+
+    @Value("${app.extraction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.spool-dir:${java.io.tmpdir}/backend-uploads}")
+    private String spoolDir;
+
+    @Value("${app.extraction.threads:2}")
+    private int threads;
+
+    @Value("${app.extraction.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.extraction.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    @Value("${app.extraction.max-file-bytes:209715200}")
+    private long maxFileBytes;
+
+    @Value("${app.extraction.max-chars:500000}")
+    private int maxChars;
+
+    @Value("${app.extraction.max-pdf-pages:2000}")
+    private int maxPdfPages;
+
+    @Value("${app.extraction.max-zip-entry-bytes:104857600}")
+    private long maxZipEntryBytes;
+
+    private ThreadPoolExecutor pool;
+    private ScheduledExecutorService watchdog;
+    private Path workDir;
+
+    private final AtomicLong extracted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        workDir = Paths.get(spoolDir).resolve("extract");
+        Files.createDirectories(workDir);
+        // Files left over from a previous run can't be matched to their lesson any more
+        try (var leftovers = Files.list(workDir)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+
+        AtomicInteger n = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> Thread.ofPlatform().name("text-extract-" + n.incrementAndGet()).daemon().unstarted(r),
+                new ThreadPoolExecutor.AbortPolicy());
+        watchdog = Executors.newSingleThreadScheduledExecutor(
+                r -> Thread.ofPlatform().name("text-extract-watchdog").daemon().unstarted(r));
+
+        // Decompressed size limit per OOXML part (zip bomb / huge embedded media guard).
+        // A JVM-wide POI setting, so it is set once here and not per file.
+        ZipSecureFile.setMaxEntrySize(maxZipEntryBytes);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    public static boolean supports(String filename) {
+        if (filename == null) return false;
+        String name = filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".pdf") || name.endsWith(".pptx") || name.endsWith(".docx");
+    }
+
+    // Called on the upload thread once the file is stored. Takes the spooled file over (moves it),
+    // so UploadService's cleanup leaves it alone; never blocks.
+    public void submit(Long materialId, String filename, Path spooled) {
+        if (!enabled || !supports(filename)) return;
+        try {
+            if (Files.size(spooled) > maxFileBytes) {
+                record(materialId, MaterialText.SKIPPED, null, false, "File larger than " + maxFileBytes + " bytes");
+                skipped.incrementAndGet();
+                return;
+            }
+            Path work = workDir.resolve(UUID.randomUUID() + extension(filename));
+            Files.move(spooled, work);
+            try {
+                pool.execute(() -> extract(materialId, filename, work));
+            } catch (RejectedExecutionException e) {
+                deleteQuietly(work);
+                record(materialId, MaterialText.SKIPPED, null, false, "Extraction queue full");
+                skipped.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not queue text extraction for material {}", materialId, e);
+        }
+    }
+
+    private void extract(Long materialId, String filename, Path file) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        // Backstop for code that doesn't reach one of our deadline checks
+        Backstop backstop = new Backstop(Thread.currentThread());
+        ScheduledFuture<?> timer = watchdog.schedule(backstop, timeoutSeconds, TimeUnit.SECONDS);
+        LimitedText text = new LimitedText(maxChars, deadline);
+        try {
+            if (filename.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                extractPdf(file, text);
+            } else {
+                extractOffice(file, filename, text);
+            }
+            finish(materialId, text);
+        } catch (TextLimitReached e) {
+            finish(materialId, text); // keep what fits
+        } catch (Exception e) {
+            // An interrupt from the watchdog can also surface as an I/O error inside the parser
+            if (e instanceof ExtractionTimeout || System.nanoTime() > deadline) {
+                timedOut.incrementAndGet();
+                record(materialId, MaterialText.TIMEOUT, null, false, "No result after " + timeoutSeconds + "s");
+                log.warn("Text extraction of material {} ({}) timed out", materialId, filename);
+            } else {
+                failed.incrementAndGet();
+                record(materialId, MaterialText.FAILED, null, false, e.toString());
+                log.warn("Text extraction of material {} ({}) failed: {}", materialId, filename, e.toString());
+            }
+        } finally {
+            timer.cancel(false);
+            // The watchdog may already be running past the cancel; once disarm() returns it can
+            // no longer interrupt, so clearing the flag now keeps any late interrupt out of the next file
+            backstop.disarm();
+            Thread.interrupted();
+            deleteQuietly(file);
+        }
+    }
+
+    private void extractPdf(Path file, LimitedText out) throws IOException {
+        try (PDDocument document = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            PDFTextStripper stripper = new PDFTextStripper() {
+                @Override
+                protected void startPage(PDPage page) throws IOException {
+                    out.checkDeadline();
+                    super.startPage(page);
+                }
+            };
+            stripper.setEndPage(maxPdfPages);
+            stripper.writeText(document, out);
+        }
+    }
+
+    // POI's own extractors build the whole document in memory before returning any text, so
+    // the text parts are parsed here instead: DOCX body, PPTX slides in order
+    private void extractOffice(Path file, String filename, LimitedText out) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Not an Office Open XML file: " + e.getMessage(), e);
+        }
+        try {
+            for (PackagePart part : textParts(pkg, filename)) {
+                out.checkDeadline();
+                try (InputStream in = part.getInputStream()) {
+                    parse(in, out);
+                }
+            }
+        } catch (InvalidFormatException e) {
+            throw new IOException("Broken Office Open XML file: " + e.getMessage(), e);
+        } finally {
+            pkg.revert(); // read only: close() would try to save
+        }
+    }
+
+    private static final char[] NEWLINE = {'\n'};
+    private static final String SLIDE_RELATION = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/slide";
+
+    private static List<PackagePart> textParts(OPCPackage pkg, String filename) throws InvalidFormatException {
+        PackageRelationship main = pkg.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT).getRelationship(0);
+        if (main == null) throw new InvalidFormatException("No main document part");
+        PackagePart document = pkg.getPart(main);
+        if (!filename.toLowerCase(Locale.ROOT).endsWith(".pptx")) return List.of(document);
+
+        List<PackagePart> slides = new ArrayList<>();
+        for (PackageRelationship rel : document.getRelationshipsByType(SLIDE_RELATION)) {
+            slides.add(document.getRelatedPart(rel));
+        }
+        // slide1.xml, slide2.xml, ... slide10.xml
+        slides.sort(Comparator.comparingInt(part -> number(part.getPartName().getName())));
+        return slides;
+    }
+
+    private static int number(String name) {
+        String digits = name.replaceAll("\\D", "");
+        return digits.isEmpty() || digits.length() > 9 ? 0 : Integer.parseInt(digits);
+    }
+
+    // Text runs (<w:t> in Word, <a:t> in slides) go straight to the sink, one line per paragraph
+    private static void parse(InputStream in, LimitedText out) throws IOException {
+        try {
+            XMLReader reader = XMLHelper.newXMLReader();
+            reader.setContentHandler(new DefaultHandler() {
+                private boolean inText;
+
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+                    try {
+                        out.checkDeadline();
+                    } catch (ExtractionTimeout e) {
+                        throw new SAXException(e);
+                    }
+                    if ("t".equals(localName)) inText = true;
+                }
+
+                @Override
+                public void endElement(String uri, String localName, String qName) throws SAXException {
+                    if ("t".equals(localName)) inText = false;
+                    else if ("p".equals(localName)) write(NEWLINE, 0, 1);
+                }
+
+                @Override
+                public void characters(char[] ch, int start, int length) throws SAXException {
+                    if (inText) write(ch, start, length);
+                }
+
+                private void write(char[] ch, int start, int length) throws SAXException {
+                    try {
+                        out.write(ch, start, length);
+                    } catch (IOException e) {
+                        throw new SAXException(e);
+                    }
+                }
+            });
+            reader.parse(new InputSource(in));
+        } catch (SAXException e) {
+            // Our own limits come back wrapped
+            if (e.getException() instanceof IOException limit) throw limit;
+            throw new IOException("Unreadable XML part: " + e.getMessage(), e);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void finish(Long materialId, LimitedText text) {
+        String content = text.toString().strip();
+        if (!record(materialId, MaterialText.DONE, content, text.truncated, null)) return;
+        searchIndex.indexMaterialText(materialId, content);
+        extracted.incrementAndGet();
+    }
+
+    // False when the lesson was deleted while its file was being processed
+    private boolean record(Long materialId, String status, String text, boolean truncated, String error) {
+        if (!materialRepository.existsById(materialId)) return false;
+        textRepository.save(new MaterialText(materialId, status, text, truncated, error));
+        return true;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? "" : filename.substring(dot).toLowerCase(Locale.ROOT);
+    }
+
+    public int queueDepth() { return pool.getQueue().size(); }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", pool.getQueue().size());
+        stats.put("active", pool.getActiveCount());
+        stats.put("extracted", extracted.get());
+        stats.put("failed", failed.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("skipped", skipped.get());
+        return stats;
+    }
+
+    // Interrupts the worker when its time is up, unless disarmed first. Both sides take the
+    // same lock, so the interrupt is either delivered before disarm() returns or never.
+    private static class Backstop implements Runnable {
+        private final Thread worker;
+        private boolean armed = true;
+
+        Backstop(Thread worker) { this.worker = worker; }
+
+        @Override
+        public synchronized void run() {
+            if (armed) worker.interrupt();
+        }
+
+        synchronized void disarm() { armed = false; }
+    }
+
+    // ==========================================
+    // TEXT SINK WITH LIMITS
+    // ==========================================
+    // Control flow, not errors: no stack trace needed
+    private static class TextLimitReached extends IOException {
+        TextLimitReached() { super("Text limit reached"); }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() { return this; }
+    }
+
+    private static class ExtractionTimeout extends IOException {
+        ExtractionTimeout() { super("Extraction timed out"); }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() { return this; }
+    }
+
+    // Collects text up to maxChars and stops the extractor once the deadline has passed
+    private static class LimitedText extends Writer {
+        private final StringBuilder text = new StringBuilder();
+        private final int maxChars;
+        private final long deadline;
+        boolean truncated;
+
+        LimitedText(int maxChars, long deadline) {
+            this.maxChars = maxChars;
+            this.deadline = deadline;
+        }
+
+        void checkDeadline() throws ExtractionTimeout {
+            if (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) throw new ExtractionTimeout();
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) throws IOException {
+            checkDeadline();
+            int room = maxChars - text.length();
+            if (len > room) {
+                text.append(buf, off, Math.max(room, 0));
+                truncated = true;
+                throw new TextLimitReached();
+            }
+            text.append(buf, off, len);
+        }
+
+        @Override public void flush() {}
+        @Override public void close() {}
+        @Override public String toString() { return text.toString(); }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.backend;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+// Reads "Authorization: Bearer <token>" on every API call and, when the token checks out,
+// puts the caller on the request (AuthPrincipal.of(request)). One HMAC, plus a cached check
+// that the user still exists with that role (TokenService.isCurrent).
+//
+// With app.auth.token.enforce=true calls to /api/** also need a valid token (except the
+// public paths), /api/admin/** needs the admin role and /api/professor/** professor or admin.
+// The shared paths are reads under /api/admin that every signed-in role needs (the roadmap
+// and subject pages load modules and materials from there).
+// Enforcement is off by default so clients that don't send tokens yet keep working.
+@Component
+public class TokenAuthFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    @Autowired private TokenService tokenService;
+
+    @Value("${app.auth.token.enforce:false}")
+    private boolean enforce;
+
+    // "pattern" or "METHOD pattern"
+    @Value("${app.auth.token.public-paths:/api/auth/login,/api/files/**,/api/courses/**,GET /api/admin/courses}")
+    private List<String> publicPaths;
+
+    @Value("${app.auth.token.shared-paths:GET /api/admin/modules,GET /api/admin/materials}")
+    private List<String> sharedPaths;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        AuthPrincipal principal = null;
+        if (header != null && header.startsWith(BEARER)) {
+            principal = tokenService.verify(header.substring(BEARER.length()).trim());
+            if (principal != null && !tokenService.isCurrent(principal)) principal = null;
+            if (principal != null) request.setAttribute(AuthPrincipal.ATTRIBUTE, principal);
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (enforce && needsToken(request, path)) {
+            if (principal == null) {
+                reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Missing or expired token");
+                return;
+            }
+            if (!matches(sharedPaths, request, path) && !allowed(principal, path)) {
+                reject(response, HttpServletResponse.SC_FORBIDDEN, "Not allowed for role " + principal.role());
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean needsToken(HttpServletRequest request, String path) {
+        // CORS preflights never carry credentials
+        if ("OPTIONS".equals(request.getMethod())) return false;
+        if (!path.startsWith("/api/")) return false;
+        return !matches(publicPaths, request, path);
+    }
+
+    private boolean matches(List<String> entries, HttpServletRequest request, String path) {
+        for (String entry : entries) {
+            String pattern = entry.trim();
+            int space = pattern.indexOf(' ');
+            if (space > 0) {
+                if (!pattern.substring(0, space).equalsIgnoreCase(request.getMethod())) continue;
+                pattern = pattern.substring(space + 1).trim();
+            }
+            if (matcher.match(pattern, path)) return true;
+        }
+        return false;
+    }
+
+    private static boolean allowed(AuthPrincipal principal, String path) {
+        if (path.startsWith("/api/admin/")) return principal.isAdmin();
+        if (path.startsWith("/api/professor/")) return principal.isAdmin() || "professor".equalsIgnoreCase(principal.role());
+        return true;
+    }
+
+    // Rejected before Spring MVC's CORS handling runs, so the header is added here
+    // or the browser would only report a CORS failure
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
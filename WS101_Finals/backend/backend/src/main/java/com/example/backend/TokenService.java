@@ -0,0 +1,190 @@
+package com.example.backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Signed, self-contained access tokens (JWT layout, HS256) issued at login. They carry the
+// user id, role and course, so TokenAuthFilter can check a request with one HMAC and no
+// database lookup, on any instance that has the keys (no sticky sessions).
+//
+// A token stays signed until it expires, even when its user is deleted or given another role.
+// isCurrent() covers that: it compares the token's role with the user's current one, cached per
+// user for user-check-seconds. The instance that changes the user drops its entry right away
+// (userChanged), other instances notice within user-check-seconds.
+//
+// Key rotation: app.auth.token.keys lists every key that is still accepted ("id:base64secret,...")
+// and app.auth.token.active-key names the one new tokens are signed with. To rotate, add the new
+// key, make it active, and drop the old one once the tokens signed with it have expired (ttl).
+// Without configured keys a random key is made at startup, which only works for one instance
+// and logs everybody out on restart.
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODE = Base64.getUrlDecoder();
+
+    // Allowed difference between the clocks of two instances
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+
+    public record Issued(String token, Instant expiresAt) {}
+
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+
+    @Value("${app.auth.token.keys:}")
+    private String keys;
+
+    @Value("${app.auth.token.active-key:}")
+    private String activeKeyId;
+
+    @Value("${app.auth.token.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    @Value("${app.auth.token.user-check-seconds:30}")
+    private long userCheckSeconds;
+
+    // Deleted users are cached as "" so their leftover tokens don't cost a query each
+    private static final String NO_USER = "";
+
+    // key id -> initialised Mac, cloned per use (Mac itself isn't thread safe)
+    private final Map<String, Mac> macs = new LinkedHashMap<>();
+    private Cache<Long, String> currentRoles;
+
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        currentRoles = Caffeine.newBuilder()
+                .maximumSize(20_000)
+                .expireAfterWrite(Duration.ofSeconds(userCheckSeconds))
+                .build();
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) continue;
+            int colon = entry.indexOf(':');
+            if (colon <= 0) throw new IllegalStateException("app.auth.token.keys entries must look like id:base64secret");
+            String id = entry.substring(0, colon).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (secret.length < 32) throw new IllegalStateException("Token key " + id + " is shorter than 256 bits");
+            macs.put(id, mac(secret));
+        }
+
+        if (macs.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            activeKeyId = "local-" + HexFormat.of().formatHex(secret, 0, 4);
+            macs.put(activeKeyId, mac(secret));
+            log.warn("No app.auth.token.keys configured; using a random key, tokens won't survive a restart");
+        } else if (activeKeyId == null || activeKeyId.isBlank()) {
+            activeKeyId = macs.keySet().iterator().next();
+        } else if (!macs.containsKey(activeKeyId)) {
+            throw new IllegalStateException("app.auth.token.active-key " + activeKeyId + " is not in app.auth.token.keys");
+        }
+    }
+
+    public Issued issue(UserSummary user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(Duration.ofMinutes(ttlMinutes));
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", "HS256");
+        header.put("typ", "JWT");
+        header.put("kid", activeKeyId);
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", String.valueOf(user.id()));
+        claims.put("role", user.role());
+        if (user.courseId() != null) claims.put("courseId", user.courseId());
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", expiresAt.getEpochSecond());
+
+        String signed = encode(header) + "." + encode(claims);
+        String signature = B64.encodeToString(sign(activeKeyId, signed));
+        return new Issued(signed + "." + signature, expiresAt);
+    }
+
+    // The caller if the token is well formed, signed with a known key and not expired; otherwise null
+    public AuthPrincipal verify(String token) {
+        if (token == null) return null;
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) return null;
+
+        try {
+            Map<?, ?> header = decode(token.substring(0, first));
+            if (!"HS256".equals(header.get("alg")) || !(header.get("kid") instanceof String kid) || !macs.containsKey(kid)) {
+                return null;
+            }
+            byte[] expected = sign(kid, token.substring(0, last));
+            byte[] actual = B64_DECODE.decode(token.substring(last + 1));
+            if (!MessageDigest.isEqual(expected, actual)) return null;
+
+            Map<?, ?> claims = decode(token.substring(first + 1, last));
+            Instant expiresAt = Instant.ofEpochSecond(((Number) claims.get("exp")).longValue());
+            if (expiresAt.plus(CLOCK_SKEW).isBefore(Instant.now())) return null;
+
+            return new AuthPrincipal(Long.valueOf((String) claims.get("sub")), (String) claims.get("role"),
+                    (String) claims.get("courseId"), expiresAt);
+        } catch (IllegalArgumentException | ClassCastException | NullPointerException | JacksonException e) {
+            return null; // garbage, not an error
+        }
+    }
+
+    // False when the token's user was deleted or no longer has the role the token was issued for
+    public boolean isCurrent(AuthPrincipal principal) {
+        if (principal.userId() == null) return false;
+        String role = currentRoles.get(principal.userId(), id -> {
+            String current = userRepository.findRoleById(id);
+            return current == null ? NO_USER : current;
+        });
+        return !role.equals(NO_USER) && role.equalsIgnoreCase(principal.role());
+    }
+
+    // Call after deleting a user or changing their role
+    public void userChanged(Long userId) {
+        if (userId != null) currentRoles.invalidate(userId);
+    }
+
+    private byte[] sign(String keyId, String content) {
+        try {
+            Mac mac = (Mac) macs.get(keyId).clone();
+            return mac.doFinal(content.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac mac(byte[] secret) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(secret, ALGORITHM));
+        return mac;
+    }
+
+    private String encode(Map<String, Object> json) {
+        return B64.encodeToString(objectMapper.writeValueAsBytes(json));
+    }
+
+    private Map<?, ?> decode(String part) {
+        return objectMapper.readValue(B64_DECODE.decode(part), Map.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "*")
+public class UploadController {
+
+    @Autowired private UploadService uploadService;
+
+    // Poll this after an upload endpoint returns a jobId
+    @GetMapping("/{jobId}")
+    public ResponseEntity<UploadJob> getJob(@PathVariable String jobId) {
+        UploadJob job = uploadService.getJob(jobId);
+        if (job == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(job);
+    }
+
+    // ==========================================
+    // RESUMABLE CHUNKED UPLOADS (large lesson videos / slide decks)
+    // 1. POST /sessions {filename, size}
+    // 2. PUT /sessions/{id}?offset=N with the raw bytes of each chunk
+    //    (after a failure, GET /sessions/{id} and continue from its offset)
+    // 3. Pass the session id as "uploadSession" to the upload endpoint
+    // ==========================================
+    @PostMapping("/sessions")
+    public ResponseEntity<?> openSession(@RequestBody Map<String, Object> request) {
+        try {
+            String filename = (String) request.get("filename");
+            long size = Long.parseLong(String.valueOf(request.get("size")));
+            return ResponseEntity.ok(uploadService.openSession(filename, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/sessions/{id}")
+    public ResponseEntity<UploadSession> getSession(@PathVariable String id) {
+        UploadSession session = uploadService.getSession(id);
+        if (session == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(session);
+    }
+
+    @PutMapping("/sessions/{id}")
+    public ResponseEntity<?> appendChunk(@PathVariable String id, @RequestParam long offset, HttpServletRequest request) {
+        try {
+            UploadSession session = uploadService.appendChunk(id, offset, request.getInputStream());
+            if (session == null) return ResponseEntity.notFound().build();
+            return ResponseEntity.ok(session);
+        } catch (IllegalStateException e) {
+            // Wrong offset, or another chunk still being written: the client should GET the
+            // session and resume from its offset
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
+        }
+    }
+}
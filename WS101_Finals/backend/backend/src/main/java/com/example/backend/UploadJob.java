@@ -0,0 +1,63 @@
+package com.example.backend;
+
+import java.time.Instant;
+
+// Status of one background upload, returned by GET /api/uploads/{id}
+public class UploadJob {
+
+    public enum Status { QUEUED, UPLOADING, DONE, FAILED }
+
+    private final String id;
+    private final String filename;
+    private final long size;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int attempts;
+    private volatile String url;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile boolean deduplicated;
+
+    public UploadJob(String id, String filename, long size) {
+        this.id = id;
+        this.filename = filename;
+        this.size = size;
+    }
+
+    void startAttempt() {
+        attempts++;
+        status = Status.UPLOADING;
+    }
+
+    void complete(String url) {
+        this.url = url;
+        this.status = Status.DONE;
+        this.finishedAt = Instant.now();
+    }
+
+    // Same content was already stored, so nothing had to be uploaded
+    void markDeduplicated() {
+        this.deduplicated = true;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.status = Status.FAILED;
+        this.finishedAt = Instant.now();
+    }
+
+    boolean isFinished() { return status == Status.DONE || status == Status.FAILED; }
+
+    // Getters
+    public String getId() { return id; }
+    public String getFilename() { return filename; }
+    public long getSize() { return size; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Status getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public String getUrl() { return url; }
+    public String getError() { return error; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public boolean isDeduplicated() { return deduplicated; }
+}
@@ -0,0 +1,425 @@
+package com.example.backend;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Background uploads: the request only spools the multipart to local disk and gets a job id back.
+// The remote upload runs on a virtual thread (at most max-concurrent at a time), is retried with
+// exponential backoff, and the onComplete callback updates the owning row when it succeeds.
+// When it never succeeds, the optional onFailed callback lets the caller undo whatever it
+// already saved for the upload (e.g. a lesson row that would otherwise never get its file).
+// Large files can instead be sent as a resumable session of chunks (openSession/appendChunk),
+// which are streamed to the spool file with a fixed-size buffer.
+// Every upload is SHA-256 hashed while it is spooled; content that is already stored is
+// reused instead of uploaded again (see BlobService for the reference counting).
+@Service
+public class UploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadService.class);
+
+    @Autowired private StorageBackend storage;
+    @Autowired private BlobService blobService;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${app.upload.spool-dir:${java.io.tmpdir}/backend-uploads}")
+    private String spoolDir;
+
+    @Value("${app.upload.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${app.upload.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.upload.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${app.upload.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    @Value("${app.upload.max-session-bytes:2147483648}")
+    private long maxSessionBytes;
+
+    @Value("${app.upload.session-retention-hours:24}")
+    private long sessionRetentionHours;
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() throws IOException {
+        permits = new Semaphore(maxConcurrent, true);
+        Files.createDirectories(Paths.get(spoolDir));
+    }
+
+    public UploadJob submit(MultipartFile file, Consumer<StoredObject> onComplete) throws IOException {
+        return submit(file, onComplete, null);
+    }
+
+    // onSpooled gets the stored object and the local copy after a successful store and may
+    // move the copy away (e.g. for text extraction); whatever is left at that path is deleted afterwards
+    public UploadJob submit(MultipartFile file, Consumer<StoredObject> onComplete,
+                            BiConsumer<StoredObject, Path> onSpooled) throws IOException {
+        return submit(file, onComplete, onSpooled, null);
+    }
+
+    public UploadJob submit(MultipartFile file, Consumer<StoredObject> onComplete,
+                            BiConsumer<StoredObject, Path> onSpooled, Runnable onFailed) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path spooled = Paths.get(spoolDir).resolve(id);
+        // Streamed through a small buffer, hashing on the way
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, spooled);
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        return start(id, spooled, file.getOriginalFilename(), file.getSize(), hash, onComplete, onSpooled, onFailed);
+    }
+
+    // Hands a fully received chunked upload over to the background uploader
+    public UploadJob submitSession(String sessionId, Consumer<StoredObject> onComplete) {
+        return submitSession(sessionId, onComplete, null);
+    }
+
+    public UploadJob submitSession(String sessionId, Consumer<StoredObject> onComplete,
+                                   BiConsumer<StoredObject, Path> onSpooled) {
+        return submitSession(sessionId, onComplete, onSpooled, null);
+    }
+
+    public UploadJob submitSession(String sessionId, Consumer<StoredObject> onComplete,
+                                   BiConsumer<StoredObject, Path> onSpooled, Runnable onFailed) {
+        // Removing it is the claim: of two concurrent submits, only one gets the session
+        UploadSession session = sessions.remove(sessionId);
+        if (session == null) throw new IllegalArgumentException("Unknown upload session " + sessionId);
+        if (!session.writeLock().tryLock()) {
+            sessions.put(sessionId, session);
+            throw new IllegalStateException("Upload session " + sessionId + " is still receiving a chunk");
+        }
+        try {
+            if (!session.isComplete()) {
+                sessions.put(sessionId, session);
+                throw new IllegalStateException("Upload session " + sessionId + " has " + session.getOffset()
+                        + " of " + session.getSize() + " bytes");
+            }
+        } finally {
+            session.writeLock().unlock();
+        }
+        return start(sessionId, session.spoolFile(), session.getFilename(), session.getSize(),
+                session.contentHash(), onComplete, onSpooled, onFailed);
+    }
+
+    private UploadJob start(String id, Path spooled, String filename, long size, String hash,
+                            Consumer<StoredObject> onComplete, BiConsumer<StoredObject, Path> onSpooled,
+                            Runnable onFailed) {
+        UploadJob job = new UploadJob(id, filename, size);
+        jobs.put(id, job);
+        executor.submit(() -> run(job, spooled, hash, onComplete, onSpooled, onFailed));
+        return job;
+    }
+
+    // Stores a file made from an upload (e.g. a resized image) through the same dedup and
+    // concurrency limit, on the caller's thread. No retries: callers treat it as best effort.
+    public StoredObject storeDerived(Path file, String filename) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to store " + filename);
+        }
+        try {
+            StoredObject stored = blobService.acquire(hash);
+            if (stored != null) return stored;
+            return register(hash, Files.size(file), timedStore(file, filename, "derived"));
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Drops one reference to uploaded content (e.g. when a lesson is deleted) and removes
+    // the object from storage once nothing references it any more
+    public void releaseContent(String contentHash) {
+        if (contentHash == null) return;
+        blobService.release(contentHash, this::deleteQuietly);
+    }
+
+    // Same for a comma-separated list (e.g. the variants of a picture)
+    public void releaseContents(String contentHashes) {
+        if (contentHashes == null) return;
+        for (String hash : contentHashes.split(",")) {
+            if (!hash.isBlank()) releaseContent(hash.trim());
+        }
+    }
+
+    // ==========================================
+    // RESUMABLE CHUNKED UPLOADS
+    // ==========================================
+    public UploadSession openSession(String filename, long size) throws IOException {
+        if (size <= 0 || size > maxSessionBytes) {
+            throw new IllegalArgumentException("Upload size must be between 1 and " + maxSessionBytes + " bytes");
+        }
+        String id = UUID.randomUUID().toString();
+        Path spooled = Paths.get(spoolDir).resolve(id);
+        Files.createFile(spooled);
+        UploadSession session = new UploadSession(id, filename, size, spooled);
+        sessions.put(id, session);
+        return session;
+    }
+
+    public UploadSession getSession(String id) {
+        return sessions.get(id);
+    }
+
+    // Appends one chunk at the given offset, streaming it from the request body with a fixed
+    // buffer so memory per upload stays constant whatever the file size. Bytes that arrive
+    // before a dropped connection are kept, so the client can resume from getOffset().
+    // One chunk at a time per session: a second one sent meanwhile is refused (409) rather
+    // than left waiting for the first one's body.
+    public UploadSession appendChunk(String id, long offset, InputStream body) throws IOException {
+        UploadSession session = sessions.get(id);
+        if (session == null) return null;
+
+        if (!session.writeLock().tryLock()) {
+            throw new IllegalStateException("Another chunk of upload session " + id + " is still being written");
+        }
+        try {
+            if (offset != session.getOffset()) {
+                throw new IllegalStateException("Expected offset " + session.getOffset() + " but got " + offset);
+            }
+            try (FileChannel channel = FileChannel.open(session.spoolFile(), StandardOpenOption.WRITE)) {
+                channel.position(offset);
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_BYTES);
+                byte[] chunk = buffer.array();
+                int read;
+                while ((read = body.read(chunk)) != -1) {
+                    if (session.getOffset() + read > session.getSize()) {
+                        throw new IllegalArgumentException("Chunk goes past the declared size of " + session.getSize());
+                    }
+                    buffer.clear().limit(read);
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                    session.advance(chunk, read);
+                }
+            }
+        } finally {
+            session.writeLock().unlock();
+        }
+        return session;
+    }
+
+    public UploadJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    private void run(UploadJob job, Path spooled, String hash, Consumer<StoredObject> onComplete,
+                     BiConsumer<StoredObject, Path> onSpooled, Runnable onFailed) {
+        StoredObject stored = null;
+        boolean saved = false;
+        try {
+            permits.acquire();
+            try {
+                stored = blobService.acquire(hash);
+                if (stored != null) {
+                    job.markDeduplicated();
+                } else {
+                    StoredObject fresh = storeWithRetry(job, spooled);
+                    if (fresh == null) return;
+                    stored = register(hash, job.getSize(), fresh);
+                }
+                onComplete.accept(stored);
+                saved = true;
+                job.complete(stored.url());
+                if (onSpooled != null) handOver(job, stored, spooled, onSpooled);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Upload {} stored but could not be saved", job.getId(), e);
+            job.fail("Saving the upload failed: " + e.getMessage());
+        } finally {
+            if (!saved) {
+                // Nobody points at the content, so drop the reference this job took
+                if (stored != null) releaseQuietly(job, stored.contentHash());
+                if (onFailed != null) failed(job, onFailed);
+            }
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled upload {}", spooled, e);
+            }
+        }
+    }
+
+    private void releaseQuietly(UploadJob job, String contentHash) {
+        try {
+            releaseContent(contentHash);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the content of failed upload {}", job.getId(), e);
+        }
+    }
+
+    private void failed(UploadJob job, Runnable onFailed) {
+        try {
+            onFailed.run();
+        } catch (RuntimeException e) {
+            log.error("Cleanup after failed upload {} failed", job.getId(), e);
+        }
+    }
+
+    // Post-processing problems don't fail an upload that is already stored
+    private void handOver(UploadJob job, StoredObject stored, Path spooled, BiConsumer<StoredObject, Path> onSpooled) {
+        try {
+            onSpooled.accept(stored, spooled);
+        } catch (RuntimeException e) {
+            log.warn("Post-processing of upload {} failed", job.getId(), e);
+        }
+    }
+
+    private StoredObject storeWithRetry(UploadJob job, Path spooled) throws InterruptedException {
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            job.startAttempt();
+            try {
+                return timedStore(spooled, job.getFilename(), "upload");
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Upload {} failed after {} attempts", job.getId(), attempt, e);
+                    job.fail(e.getMessage());
+                    return null;
+                }
+                log.warn("Upload {} attempt {} failed, retrying in {} ms: {}", job.getId(), attempt, backoff, e.getMessage());
+                // Jitter so a burst of failed uploads doesn't retry in lockstep
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+                backoff *= 2;
+            }
+        }
+    }
+
+    // One attempt at the storage backend, timed per backend and outcome (app.upload.store)
+    private StoredObject timedStore(Path file, String filename, String kind) throws IOException {
+        String backend = storage.getClass().getSimpleName().split("\\$\\$")[0];
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            StoredObject stored = storage.store(file, filename);
+            outcome = "success";
+            DistributionSummary.builder("app.upload.size")
+                    .baseUnit("bytes")
+                    .tag("backend", backend)
+                    .register(meterRegistry)
+                    .record(Files.size(file));
+            return stored;
+        } finally {
+            sample.stop(Timer.builder("app.upload.store")
+                    .description("Time to hand one file to the storage backend")
+                    .tag("backend", backend)
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private StoredObject register(String hash, long size, StoredObject fresh) {
+        StoredObject kept;
+        try {
+            kept = blobService.register(hash, size, fresh);
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same content registered first
+            kept = blobService.acquire(hash);
+            if (kept == null) throw e;
+        }
+        if (!kept.key().equals(fresh.key())) deleteQuietly(fresh.key());
+        return kept;
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            storage.delete(key);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete stored object {}", key, e);
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Finished jobs are kept around for a while so clients can poll their status
+    @Scheduled(fixedDelay = 60_000)
+    void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+
+        // Abandoned chunked uploads
+        Instant sessionCutoff = Instant.now().minus(Duration.ofHours(sessionRetentionHours));
+        sessions.values().removeIf(session -> {
+            if (session.getLastActivity().isAfter(sessionCutoff)) return false;
+            try {
+                Files.deleteIfExists(session.spoolFile());
+            } catch (IOException e) {
+                log.warn("Could not delete abandoned upload {}", session.spoolFile(), e);
+            }
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Shutting down with uploads still in progress");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A resumable upload being sent in chunks. Chunks are appended to a spool file on disk;
+// "offset" is how many bytes have arrived, which is where the client resumes after a failure.
+public class UploadSession {
+
+    private final String id;
+    private final String filename;
+    private final long size;
+    private final Path spoolFile;
+    private final Instant createdAt = Instant.now();
+    // Chunks arrive in order, so the hash is built up as they are written
+    private final MessageDigest digest = UploadService.sha256();
+    // Held while a chunk is written; a lock rather than synchronized, since the writer blocks
+    // on the request body and a virtual thread must not stay pinned to its carrier meanwhile
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile long offset;
+    private volatile Instant lastActivity = createdAt;
+
+    public UploadSession(String id, String filename, long size, Path spoolFile) {
+        this.id = id;
+        this.filename = filename;
+        this.size = size;
+        this.spoolFile = spoolFile;
+    }
+
+    void advance(byte[] bytes, int length) {
+        digest.update(bytes, 0, length);
+        offset += length;
+        lastActivity = Instant.now();
+    }
+
+    String contentHash() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    Path spoolFile() { return spoolFile; }
+
+    ReentrantLock writeLock() { return writeLock; }
+
+    public boolean isComplete() { return offset == size; }
+
+    // Getters
+    public String getId() { return id; }
+    public String getFilename() { return filename; }
+    public long getSize() { return size; }
+    public long getOffset() { return offset; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getLastActivity() { return lastActivity; }
+}
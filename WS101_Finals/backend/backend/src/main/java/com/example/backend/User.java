@@ -1,18 +1,26 @@
 package com.example.backend;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_course", columnList = "role, course_id")
+})
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String username;
 
+    // BCrypt hash (see LoginService); accepted in request bodies, never written to responses
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -32,6 +40,29 @@ public class User {
     public String getProfileImage() { return profileImage; }
     public void setProfileImage(String profileImage) { this.profileImage = profileImage; }
 
+    // Smaller copies of the photo, as an HTML srcset (filled in after the upload)
+    @Column(length = 2000)
+    private String profileImageSrcset;
+
+    public String getProfileImageSrcset() { return profileImageSrcset; }
+    public void setProfileImageSrcset(String profileImageSrcset) { this.profileImageSrcset = profileImageSrcset; }
+
+    // SHA-256 of the stored photo (see BlobService), released when it is replaced
+    @JsonIgnore
+    @Column(name = "profile_image_hash", length = 64)
+    private String profileImageHash;
+
+    public String getProfileImageHash() { return profileImageHash; }
+    public void setProfileImageHash(String profileImageHash) { this.profileImageHash = profileImageHash; }
+
+    // Same for the variants in profileImageSrcset, comma-separated
+    @JsonIgnore
+    @Column(name = "profile_image_variant_hashes", length = 1000)
+    private String profileImageVariantHashes;
+
+    public String getProfileImageVariantHashes() { return profileImageVariantHashes; }
+    public void setProfileImageVariantHashes(String profileImageVariantHashes) { this.profileImageVariantHashes = profileImageVariantHashes; }
+
 // ... existing code ...
 
     // ✅ ADD GETTERS AND SETTERS
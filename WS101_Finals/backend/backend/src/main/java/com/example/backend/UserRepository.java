@@ -1,7 +1,14 @@
 package com.example.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +18,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Keep your other stats methods here
     long countByRole(String role);
     long countByRoleAndCourseId(String role, String courseId);
-}
\ No newline at end of file
+
+    // Admin user list without passwords
+    @Query("select new com.example.backend.UserSummary(u.id, u.username, u.role, u.courseId, u.profileImage, u.profileImageSrcset) "
+            + "from User u order by u.id")
+    List<UserSummary> findSummaries();
+
+    // Current role (null once the user is gone), for checking access tokens issued earlier
+    @Query("select u.role from User u where u.id = :id")
+    String findRoleById(@Param("id") Long id);
+
+    // Set-based duplicate check for bulk imports (one query per chunk)
+    @Query("select u.username from User u where u.username in :names")
+    List<String> findExistingUsernames(@Param("names") Collection<String> names);
+
+    // Replaces a legacy plaintext password with its hash, unless it was changed meanwhile
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :hash where u.id = :id and u.password = :old")
+    int upgradePassword(@Param("id") Long id, @Param("old") String old, @Param("hash") String hash);
+}
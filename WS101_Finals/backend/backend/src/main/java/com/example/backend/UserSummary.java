@@ -0,0 +1,6 @@
+package com.example.backend;
+
+// User list entry: only what the admin table shows, never the password
+public record UserSummary(Long id, String username, String role, String courseId, String profileImage,
+                          String profileImageSrcset) {
+}
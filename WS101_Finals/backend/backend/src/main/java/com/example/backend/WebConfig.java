@@ -1,5 +1,7 @@
 package com.example.backend;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
@@ -10,6 +12,8 @@ import java.nio.file.Paths;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final Logger log = LoggerFactory.getLogger(WebConfig.class);
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // 1. Get the absolute path to the "uploads" folder
@@ -17,10 +21,8 @@ public class WebConfig implements WebMvcConfigurer {
         Path uploadDir = Paths.get("uploads");
         String uploadPath = uploadDir.toAbsolutePath().toUri().toString();
 
-        // 2. Print the path to the console (CHECK THIS in your logs!)
-        System.out.println("------------------------------------------------");
-        System.out.println("📂 SERVING FILES FROM: " + uploadPath);
-        System.out.println("------------------------------------------------");
+        // 2. Log the path (CHECK THIS in your logs!)
+        log.info("Serving /uploads/** from {}", uploadPath);
 
         // 3. Register the resource handler
         // Using 'toUri()' automatically fixes "file:/" vs "file:///" issues
@@ -0,0 +1,71 @@
+-- Schema as it was created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at V1 and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    role          VARCHAR(255),
+    course_id     VARCHAR(255),
+    profile_image VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS courses (
+    id          VARCHAR(50)   NOT NULL,
+    title       VARCHAR(255),
+    description VARCHAR(1000),
+    theme_color VARCHAR(255),
+    status      VARCHAR(255),
+    image       LONGTEXT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS subjects (
+    code       VARCHAR(50)  NOT NULL,
+    title      VARCHAR(255),
+    color      VARCHAR(255),
+    course_id  VARCHAR(50),
+    year_level INT          NOT NULL,
+    semester   INT          NOT NULL,
+    status     VARCHAR(255),
+    PRIMARY KEY (code)
+);
+
+CREATE TABLE IF NOT EXISTS modules (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    title         VARCHAR(255),
+    description   VARCHAR(255),
+    module_number INT          NOT NULL,
+    status        VARCHAR(255),
+    subject_code  VARCHAR(50),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS learning_materials (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    title        VARCHAR(255),
+    type         VARCHAR(255),
+    file_path    VARCHAR(255),
+    subject_code VARCHAR(255),
+    module_id    BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS quizzes (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    title        VARCHAR(255),
+    subject_code VARCHAR(255),
+    date_created DATE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS activity_logs (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    username  VARCHAR(255),
+    action    VARCHAR(255),
+    role      VARCHAR(255),
+    timestamp DATETIME(6),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,22 @@
+-- Composite indexes for the repository lookups on the hot paths.
+-- Index names must match the @Index declarations on the entities and SchemaIndexCheck.
+
+-- LearningMaterialRepository.findBySubjectCodeAndType(AndModuleId), findBySubjectCode, countBySubjectCodeIn
+CREATE INDEX idx_materials_subject_type_module ON learning_materials (subject_code, type, module_id);
+-- LearningMaterialRepository.findBySubjectCodeAndModuleId (no type filter)
+CREATE INDEX idx_materials_subject_module ON learning_materials (subject_code, module_id);
+
+-- ModuleRepository.findBySubjectCodeOrderByModuleNumberAsc (the order by is served by the index)
+CREATE INDEX idx_modules_subject_number ON modules (subject_code, module_number);
+
+-- SubjectRepository.findByCourseId / findCodesByCourseId (code makes the code-only query index-only)
+CREATE INDEX idx_subjects_course ON subjects (course_id, code);
+
+-- QuizRepository.findBySubjectCode(In)
+CREATE INDEX idx_quizzes_subject ON quizzes (subject_code);
+
+-- UserRepository.countByRoleAndCourseId / countByRole
+CREATE INDEX idx_users_role_course ON users (role, course_id);
+
+-- ActivityLogRepository.findAllByOrderByTimestampDesc
+CREATE INDEX idx_activity_logs_timestamp ON activity_logs (timestamp, id);
@@ -0,0 +1,13 @@
+-- Content-hash deduplication of uploaded files (see StoredBlob / BlobService)
+
+CREATE TABLE stored_blobs (
+    content_hash VARCHAR(64)   NOT NULL,
+    storage_key  VARCHAR(512)  NOT NULL,
+    url          VARCHAR(1024) NOT NULL,
+    size         BIGINT        NOT NULL,
+    ref_count    INT           NOT NULL,
+    created_at   DATETIME(6),
+    PRIMARY KEY (content_hash)
+);
+
+ALTER TABLE learning_materials ADD COLUMN content_hash VARCHAR(64);
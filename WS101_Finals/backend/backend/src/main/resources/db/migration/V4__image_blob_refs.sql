@@ -0,0 +1,6 @@
+-- Content hash of the stored course picture / profile photo (see BlobService), so its
+-- reference can be released when the picture is replaced or the course/user is deleted.
+-- Null for pictures from before this (those keep their reference).
+
+ALTER TABLE courses ADD COLUMN image_hash VARCHAR(64);
+ALTER TABLE users ADD COLUMN profile_image_hash VARCHAR(64);
@@ -0,0 +1,8 @@
+-- Change counter per catalog aggregate (see CatalogService). The GET endpoints use it as their
+-- ETag and cache key, so it has to survive restarts and be shared by all instances.
+
+CREATE TABLE catalog_versions (
+    aggregate VARCHAR(100) NOT NULL,
+    version   BIGINT       NOT NULL,
+    PRIMARY KEY (aggregate)
+);
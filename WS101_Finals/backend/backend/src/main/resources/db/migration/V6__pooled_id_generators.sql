@@ -0,0 +1,15 @@
+-- Pooled (pooled-lo) id allocation for users, modules, learning_materials, quizzes and activity_logs.
+-- Hibernate reserves ids 50 at a time from this table instead of relying on AUTO_INCREMENT,
+-- so inserts can be batched. next_val is the next id to hand out, seeded past the existing rows.
+
+CREATE TABLE id_generators (
+    name     VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO id_generators (name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users;
+INSERT INTO id_generators (name, next_val) SELECT 'modules', COALESCE(MAX(id), 0) + 1 FROM modules;
+INSERT INTO id_generators (name, next_val) SELECT 'learning_materials', COALESCE(MAX(id), 0) + 1 FROM learning_materials;
+INSERT INTO id_generators (name, next_val) SELECT 'quizzes', COALESCE(MAX(id), 0) + 1 FROM quizzes;
+INSERT INTO id_generators (name, next_val) SELECT 'activity_logs', COALESCE(MAX(id), 0) + 1 FROM activity_logs;
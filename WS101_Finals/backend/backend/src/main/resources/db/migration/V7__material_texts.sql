@@ -0,0 +1,11 @@
+-- Text extracted from uploaded lesson files (see TextExtractionService), one row per learning material
+
+CREATE TABLE material_texts (
+    material_id  BIGINT       NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    content      LONGTEXT,
+    error        VARCHAR(500),
+    truncated    BIT          NOT NULL,
+    extracted_at DATETIME(6),
+    PRIMARY KEY (material_id)
+);
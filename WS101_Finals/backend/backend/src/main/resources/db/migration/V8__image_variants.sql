@@ -0,0 +1,5 @@
+-- Resized copies of course pictures and profile photos (see ImageDerivativeService),
+-- kept as an HTML srcset: "url 320w, url 640w, ..., original 1600w"
+
+ALTER TABLE courses ADD COLUMN image_srcset VARCHAR(2000);
+ALTER TABLE users ADD COLUMN profile_image_srcset VARCHAR(2000);
@@ -0,0 +1,5 @@
+-- Content hashes of the resized variants (comma-separated, see ImageDerivativeService), so their
+-- references can be released together with the picture they belong to.
+
+ALTER TABLE courses ADD COLUMN image_variant_hashes VARCHAR(1000);
+ALTER TABLE users ADD COLUMN profile_image_variant_hashes VARCHAR(1000);
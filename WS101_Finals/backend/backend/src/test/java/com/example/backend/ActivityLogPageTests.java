@@ -0,0 +1,59 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Paging through the log with small pages returns every row once, newest first, including
+// rows with the same timestamp and old rows that have none
+@SpringBootTest
+@ActiveProfiles("test")
+class ActivityLogPageTests {
+
+    @Autowired private AdminController adminController;
+    @Autowired private ActivityLogRepository logRepository;
+
+    @Test
+    void pagesReachRowsWithoutTimestamp() {
+        LocalDateTime noon = LocalDateTime.of(2020, 1, 1, 12, 0);
+        List<Long> expected = new ArrayList<>();
+        // Saved oldest first with growing ids, so newest first is the reverse of the save order
+        for (LocalDateTime timestamp : new LocalDateTime[]{null, null, noon, noon, noon, noon.plusHours(1)}) {
+            ActivityLog entry = new ActivityLog("paging", "Viewed", "student");
+            entry.setTimestamp(timestamp);
+            expected.add(0, logRepository.save(entry).getId());
+        }
+
+        // Other tests in this context write logs too (newer ones); only ours are compared
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        do {
+            ActivityLogPage page = (ActivityLogPage) adminController.getLogPage(after, 2).getBody();
+            page.items().forEach(entry -> seen.add(entry.getId()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(seen.size(), new HashSet<>(seen).size(), "a row came back twice");
+        assertEquals(expected, seen.stream().filter(expected::contains).toList());
+    }
+
+    @Test
+    void cursorOfRowWithoutTimestamp() {
+        ActivityLog entry = new ActivityLog("paging", "Viewed", "student");
+        entry.setTimestamp(null);
+        entry.setId(42L);
+
+        String cursor = ActivityLogPage.cursorOf(entry);
+        assertNull(ActivityLogPage.cursorTimestamp(cursor));
+        assertEquals(42L, ActivityLogPage.cursorId(cursor));
+    }
+}
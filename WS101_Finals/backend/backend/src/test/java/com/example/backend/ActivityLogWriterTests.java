@@ -0,0 +1,110 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The writer against a fake repository that records every batch, and can hold the worker
+// inside a write so the queue fills up
+class ActivityLogWriterTests {
+
+    private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch writeGate = new CountDownLatch(0);
+    private volatile boolean writing;
+
+    private ActivityLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeGate.countDown();
+        writer.shutdown();
+    }
+
+    @Test
+    void entriesAreWrittenInBatches() throws Exception {
+        start(100, 3, 300);
+        for (int i = 0; i < 7; i++) writer.log("user" + i, "Logged in", "student");
+
+        // Two full batches right away, the last one when the flush interval runs out
+        await(() -> writer.written() == 7);
+        assertEquals(List.of(3, 3, 1), batches);
+    }
+
+    @Test
+    void logWaitsForRoomWhileLogIfRoomDrops() throws Exception {
+        start(2, 1, 50);
+        writeGate = new CountDownLatch(1);
+        writer.log("a", "first", "student");
+        await(() -> writing);
+        writer.log("b", "second", "student");
+        writer.log("c", "third", "student");
+
+        writer.logIfRoom("d", "Logged in", "student");
+        assertEquals(1, writer.dropped());
+
+        Thread blocked = Thread.startVirtualThread(() -> writer.log("e", "fifth", "student"));
+        Thread.sleep(100);
+        assertTrue(blocked.isAlive(), "log() should wait for a free slot");
+
+        writeGate.countDown();
+        blocked.join(5000);
+        await(() -> writer.written() == 4);
+        assertEquals(1, writer.dropped());
+    }
+
+    @Test
+    void shutdownWritesQueuedEntriesAndCountsLateOnes() throws Exception {
+        start(100, 50, 10_000);
+        for (int i = 0; i < 5; i++) writer.log("user" + i, "Logged in", "student");
+
+        writer.shutdown();
+        assertEquals(5, writer.written());
+
+        writer.log("late", "Logged out", "student");
+        writer.logIfRoom("late", "Logged in", "student");
+        assertEquals(5, writer.written());
+        assertEquals(2, writer.dropped());
+    }
+
+    private void start(int queueCapacity, int batchSize, long flushIntervalMs) {
+        writer = new ActivityLogWriter();
+        ReflectionTestUtils.setField(writer, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", ActivityLogWriter.OverflowPolicy.BLOCK);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        });
+        ReflectionTestUtils.setField(writer, "logRepository", Proxy.newProxyInstance(
+                ActivityLogRepository.class.getClassLoader(), new Class<?>[]{ActivityLogRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("saveAll")) throw new UnsupportedOperationException(method.getName());
+                    writing = true;
+                    writeGate.await();
+                    // The writer reuses its batch list, so only the size is kept
+                    batches.add(((List<?>) args[0]).size());
+                    return args[0];
+                }));
+        writer.start();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) Thread.sleep(10);
+        assertTrue(condition.getAsBoolean(), "the writer did not get there in time");
+    }
+}
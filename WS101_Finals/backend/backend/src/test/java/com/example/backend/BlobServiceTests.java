@@ -0,0 +1,63 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BlobServiceTests {
+
+    @Autowired private BlobService blobService;
+
+    @Test
+    void onlyTheLastReleaseDeletesTheObject() {
+        blobService.register("hash-shared", 3, new StoredObject("key-shared", "url"));
+        blobService.acquire("hash-shared");
+        List<String> deleted = new ArrayList<>();
+
+        blobService.release("hash-shared", deleted::add);
+        assertTrue(deleted.isEmpty());
+        blobService.release("hash-shared", deleted::add);
+        assertEquals(List.of("key-shared"), deleted);
+        assertNull(blobService.acquire("hash-shared"));
+    }
+
+    @Test
+    void uploadOfTheSameContentWaitsUntilTheObjectIsDeleted() throws Exception {
+        blobService.register("hash-last", 3, new StoredObject("key-last", "url"));
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        Thread release = Thread.startVirtualThread(() -> blobService.release("hash-last", key -> {
+            deleting.countDown();
+            try {
+                deleted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(deleting.await(5, TimeUnit.SECONDS));
+
+        // Would otherwise take a reference to an object that is about to disappear,
+        // or find no row and store a file that the delete then removes
+        CompletableFuture<StoredObject> upload = CompletableFuture.supplyAsync(() -> blobService.acquire("hash-last"));
+        Thread.sleep(200);
+        assertFalse(upload.isDone(), "acquire should wait for the row lock");
+
+        deleted.countDown();
+        release.join();
+        assertNull(upload.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Chunks of two, so a handful of rows already crosses chunk boundaries
+@SpringBootTest(properties = "app.bulk.chunk-size=2")
+@ActiveProfiles("test")
+class BulkImportServiceTests {
+
+    @Autowired private BulkImportService bulkImportService;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        subjectRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        Course course = new Course();
+        course.setId("BULK");
+        course.setTitle("Bulk course");
+        courseRepository.save(course);
+    }
+
+    @Test
+    void importsEveryRowAcrossChunks() {
+        BulkImportReport report = subjects("""
+                code,title,courseId,yearLevel,semester
+                B1,One,BULK,1,1
+                B2,"Two, with a comma",BULK,1,2
+
+                B3,Three,BULK,2,1
+                B4,Four,BULK,2,2
+                B5,Five,BULK,3,1
+                """);
+
+        assertEquals(5, report.total());
+        assertEquals(5, report.created());
+        assertEquals(List.of(1, 2, 3, 4, 5), report.rows().stream().map(BulkImportReport.Row::row).toList());
+        assertEquals("Two, with a comma", subjectRepository.findById("B2").orElseThrow().getTitle());
+        assertEquals(5, subjectRepository.count());
+    }
+
+    @Test
+    void duplicatesAndUnknownCoursesAreReportedPerRow() {
+        subjects("code,title,courseId\nOLD,Already there,BULK\n");
+
+        // Row 3 repeats row 1 from the previous chunk, row 4 is in the database already
+        BulkImportReport report = subjects("""
+                code,title,courseId
+                D1,First,BULK
+                D2,Second,NOPE
+                D1,First again,BULK
+                OLD,Again,BULK
+                D3,Third,BULK
+                """);
+
+        assertEquals(2, report.created());
+        assertEquals(List.of("created", "error", "error", "error", "created"),
+                report.rows().stream().map(BulkImportReport.Row::status).toList());
+        assertEquals("Unknown course: NOPE", report.rows().get(1).message());
+        assertEquals("Subject Code already exists.", report.rows().get(2).message());
+        assertEquals("Subject Code already exists.", report.rows().get(3).message());
+        assertEquals("First", subjectRepository.findById("D1").orElseThrow().getTitle());
+    }
+
+    @Test
+    void unreadableRowStopsTheImportButKeepsWhatWentIn() {
+        // Rows 1-2 are a full chunk, row 3 is pending when row 4 turns out to be broken
+        BulkImportReport report = bulkImportService.importSubjects(body("""
+                [{"code": "M1", "courseId": "BULK"},
+                 {"code": "M2", "courseId": "BULK"},
+                 {"code": "M3", "courseId": "BULK"},
+                 {"code": "M4", "courseId": ]"""), "application/json");
+
+        assertEquals(4, report.total());
+        assertEquals(3, report.created());
+        BulkImportReport.Row broken = report.rows().get(3);
+        assertEquals(4, broken.row());
+        assertEquals("error", broken.status());
+        assertTrue(broken.message().startsWith("Could not read row"), broken.message());
+        assertTrue(subjectRepository.existsById("M3"));
+    }
+
+    @Test
+    void rowRefusedByTheDatabaseDoesNotTakeItsChunkDown() {
+        String longTitle = "x".repeat(300);
+        BulkImportReport subjects = subjects("code,title,courseId\nR1,Fine,BULK\nR2," + longTitle + ",BULK\n");
+        assertEquals(List.of("created", "error"), subjects.rows().stream().map(BulkImportReport.Row::status).toList());
+        assertTrue(subjectRepository.existsById("R1"));
+        assertFalse(subjectRepository.existsById("R2"));
+
+        // Same through JPA, where the rolled back chunk has already handed out ids
+        String longName = "u".repeat(300);
+        BulkImportReport users = bulkImportService.importUsers(
+                body("username,password\nfine-user,secret\n" + longName + ",secret\nother-user,secret\n"), "text/csv");
+        assertEquals(List.of("created", "error", "created"), users.rows().stream().map(BulkImportReport.Row::status).toList());
+        assertEquals(2, userRepository.count());
+    }
+
+    private BulkImportReport subjects(String csv) {
+        return bulkImportService.importSubjects(body(csv), "text/csv");
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkRowsTests {
+
+    @Test
+    void csvLinesFollowTheHeader() {
+        Iterator<Map<String, String>> rows = open("text/csv; charset=utf-8",
+                "code , title,yearLevel\nCC101,\"Programming, part \"\"one\"\"\",1\n\nCC102,Short\n");
+
+        assertEquals(Map.of("code", "CC101", "title", "Programming, part \"one\"", "yearLevel", "1"), rows.next());
+        // Blank lines are skipped, missing trailing values are simply absent
+        Map<String, String> second = rows.next();
+        assertEquals("Short", second.get("title"));
+        assertNull(second.get("yearLevel"));
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    void jsonValuesBecomeStrings() {
+        Iterator<Map<String, String>> rows = open("application/json",
+                "[{\"code\": \"CC101\", \"yearLevel\": 2, \"color\": null}, {\"code\": \"CC102\"}]");
+
+        Map<String, String> first = rows.next();
+        assertEquals("2", first.get("yearLevel"));
+        assertNull(first.get("color"));
+        assertEquals("CC102", rows.next().get("code"));
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    void brokenJsonFailsAtTheRowItBreaksOn() {
+        Iterator<Map<String, String>> rows = open("application/json", "[{\"code\": \"CC101\"}, {\"code\": }]");
+
+        assertEquals("CC101", rows.next().get("code"));
+        assertThrows(JacksonException.class, () -> {
+            rows.hasNext();
+            rows.next();
+        });
+    }
+
+    @Test
+    void parsesQuotedFields() {
+        assertEquals(List.of("a", "b, c", "", "d\"e"), BulkRows.parseLine("a, \"b, c\",,\"d\"\"e\""));
+    }
+
+    private static Iterator<Map<String, String>> open(String contentType, String body) {
+        return BulkRows.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType,
+                JsonMapper.builder().build());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Deleting a subject (or its course) removes what hangs off it, from the database and from search
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogDeletionTests {
+
+    @Autowired private AdminController adminController;
+    @Autowired private ProfessorController professorController;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private QuizRepository quizRepository;
+    @Autowired private MaterialTextRepository textRepository;
+    @Autowired private SearchIndex searchIndex;
+
+    @Test
+    void subjectTakesItsModulesLessonsAndQuizzesWithIt() {
+        adminController.createCourse("DEL", "Deletions", "", "#fff", null);
+        Long zoologyLesson = addSubject("DEL101", "Zoology");
+        Long botanyLesson = addSubject("DEL102", "Botany");
+
+        adminController.deleteSubject("DEL101");
+
+        assertEquals(List.of(), moduleRepository.findBySubjectCodeOrderByModuleNumberAsc("DEL101"));
+        assertEquals(List.of(), materialRepository.findBySubjectCode("DEL101"));
+        assertEquals(List.of(), quizRepository.findBySubjectCode("DEL101"));
+        assertFalse(textRepository.existsById(zoologyLesson));
+        assertTrue(textRepository.existsById(botanyLesson));
+        assertTrue(searchIndex.search("zoology", null, 10).isEmpty());
+        assertEquals(3, searchIndex.search("botany", null, 10).size());
+
+        adminController.deleteCourse("DEL");
+
+        assertTrue(subjectRepository.findByCourseId("DEL").isEmpty());
+        assertEquals(List.of(), moduleRepository.findBySubjectCodeOrderByModuleNumberAsc("DEL102"));
+        assertEquals(List.of(), materialRepository.findBySubjectCode("DEL102"));
+        assertFalse(textRepository.existsById(botanyLesson));
+        assertTrue(searchIndex.search("botany", null, 10).isEmpty());
+    }
+
+    // A subject with one module, one lesson (with extracted text) and one quiz, all named after the subject
+    private Long addSubject(String code, String name) {
+        Subject subject = new Subject();
+        subject.setCode(code);
+        subject.setTitle(name);
+        subject.setCourseId("DEL");
+        adminController.createSubject(subject);
+
+        Module module = new Module();
+        module.setSubjectCode(code);
+        module.setTitle(name + " basics");
+        professorController.createModule(module);
+
+        LearningMaterial material = new LearningMaterial();
+        material.setSubjectCode(code);
+        material.setTitle(name + " notes");
+        material.setType("pdf");
+        Long id = materialRepository.save(material).getId();
+        searchIndex.indexMaterial(material);
+        textRepository.save(new MaterialText(id, MaterialText.DONE, name + " in depth", false, null));
+
+        Quiz quiz = new Quiz();
+        quiz.setSubjectCode(code);
+        quiz.setTitle(name + " quiz");
+        quizRepository.save(quiz);
+        return id;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The permit bookkeeping on its own, against a plain (unpooled) H2 connection
+class ConcurrencyLimitedDataSourceTests {
+
+    private final ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:limited;DB_CLOSE_DELAY=-1", "sa", ""), 1, 50);
+
+    @Test
+    void waitsForAFreeConnectionThenGivesUp() throws Exception {
+        try (Connection first = dataSource.getConnection()) {
+            assertEquals(1, dataSource.inUse());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            assertEquals(1, dataSource.timeouts());
+        }
+        assertEquals(0, dataSource.inUse());
+        try (Connection again = dataSource.getConnection()) {
+            assertTrue(again.isValid(1));
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(0, dataSource.inUse());
+
+        // Still only one at a time
+        try (Connection held = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+    }
+}
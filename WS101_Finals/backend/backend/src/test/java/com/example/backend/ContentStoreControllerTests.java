@@ -0,0 +1,133 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Range and conditional requests against a ten byte object
+class ContentStoreControllerTests {
+
+    private static final byte[] CONTENT = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    @TempDir Path tempDir;
+
+    private final ContentStoreController controller = new ContentStoreController();
+    private String name;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(tempDir.resolve("objects").toString(), "");
+        ReflectionTestUtils.setField(controller, "storage", storage);
+        Path upload = Files.write(tempDir.resolve("upload"), CONTENT);
+        name = storage.store(upload, "clip.mp4").key();
+        etag = "\"" + LocalStorageBackend.hashOf(name) + "\"";
+    }
+
+    @Test
+    void servesTheWholeObject() throws Exception {
+        MockHttpServletResponse response = get(null, null);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("video/mp4", response.getContentType());
+    }
+
+    @Test
+    void servesSingleRanges() throws Exception {
+        MockHttpServletResponse suffix = get("bytes=-4", null);
+        assertEquals(206, suffix.getStatus());
+        assertEquals("bytes 6-9/10", suffix.getHeader("Content-Range"));
+        assertArrayEquals(new byte[]{6, 7, 8, 9}, suffix.getContentAsByteArray());
+
+        MockHttpServletResponse openEnded = get("bytes=7-", null);
+        assertEquals("bytes 7-9/10", openEnded.getHeader("Content-Range"));
+        assertArrayEquals(new byte[]{7, 8, 9}, openEnded.getContentAsByteArray());
+
+        // An end past the object is cut to its last byte
+        MockHttpServletResponse bounded = get("bytes=2-50", null);
+        assertEquals("bytes 2-9/10", bounded.getHeader("Content-Range"));
+        assertEquals(8, bounded.getContentAsByteArray().length);
+    }
+
+    @Test
+    void multipleOrMalformedRangesGetTheWholeObject() throws Exception {
+        for (String range : new String[]{"bytes=0-1,4-5", "bytes=abc", "items=0-1"}) {
+            MockHttpServletResponse response = get(range, null);
+            assertEquals(200, response.getStatus(), range);
+            assertNull(response.getHeader("Content-Range"), range);
+            assertArrayEquals(CONTENT, response.getContentAsByteArray(), range);
+        }
+    }
+
+    @Test
+    void rangesOutsideTheObjectAreNotSatisfiable() throws Exception {
+        for (String range : new String[]{"bytes=10-", "bytes=20-30", "bytes=-0", "bytes=5-2"}) {
+            MockHttpServletResponse response = get(range, null);
+            assertEquals(416, response.getStatus(), range);
+            assertEquals("bytes */10", response.getHeader("Content-Range"), range);
+        }
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        MockHttpServletResponse same = get(null, etag);
+        assertEquals(304, same.getStatus());
+        assertEquals(0, same.getContentAsByteArray().length);
+
+        assertEquals(304, get(null, "\"other\", W/" + etag).getStatus());
+        assertEquals(304, get(null, "*").getStatus());
+        assertEquals(200, get(null, "\"other\"").getStatus());
+        // If-None-Match wins over a range
+        assertEquals(304, get("bytes=0-1", etag).getStatus());
+    }
+
+    @Test
+    void leavesTheBodyToTomcatWhenSendfileIsAvailable() throws Exception {
+        MockHttpServletRequest request = request("bytes=2-5", null);
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(name, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(2L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void unknownOrForeignNamesAreNotFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve("0".repeat(64) + ".mp4", request(null, null), response);
+        assertEquals(404, response.getStatus());
+
+        response = new MockHttpServletResponse();
+        controller.serve("..%2Fupload", request(null, null), response);
+        assertEquals(404, response.getStatus());
+    }
+
+    private MockHttpServletResponse get(String range, String ifNoneMatch) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(name, request(range, ifNoneMatch), response);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String range, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/" + name);
+        if (range != null) request.addHeader("Range", range);
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Conditional GETs of a course: 304 while it is unchanged, 404 (never 304) once it is gone,
+// and never a stale answer once the version in the database has moved on
+@SpringBootTest
+@ActiveProfiles("test")
+class CourseEtagTests {
+
+    @Autowired private CourseController courseController;
+    @Autowired private AdminController adminController;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private CatalogVersionRepository versionRepository;
+
+    @Test
+    void deletedCourseIsNotFoundEvenWithItsEtag() {
+        adminController.createCourse("ETAG", "ETag course", "", "#fff", null);
+        String etag = courseController.getCourse("ETAG", request(null)).getHeaders().getETag();
+
+        MockHttpServletResponse unchanged = new MockHttpServletResponse();
+        assertNull(courseController.getCourse("ETAG", request(etag, unchanged)));
+        assertEquals(304, unchanged.getStatus());
+
+        adminController.deleteCourse("ETAG");
+        ResponseEntity<Course> gone = courseController.getCourse("ETAG", request(etag));
+        assertEquals(404, gone.getStatusCode().value());
+        assertEquals(404, courseController.getCourse("NOSUCH", request("\"whatever-0\"")).getStatusCode().value());
+        assertEquals(404, courseController.getCourseImage("ETAG", request(etag)).getStatusCode().value());
+    }
+
+    @Test
+    void changeMadeByAnotherInstanceIsNotAnsweredFromThisOne() {
+        adminController.createCourse("ELSEWHERE", "Before", "", "#fff", null);
+        String etag = courseController.getCourse("ELSEWHERE", request(null)).getHeaders().getETag();
+
+        // What another instance does on an edit: save, then bump the version in the database
+        Course course = courseRepository.findById("ELSEWHERE").orElseThrow();
+        course.setTitle("After");
+        courseRepository.save(course);
+        versionRepository.bump(CatalogService.course("ELSEWHERE"));
+
+        ResponseEntity<Course> changed = courseController.getCourse("ELSEWHERE", request(etag));
+        assertEquals(200, changed.getStatusCode().value());
+        assertEquals("After", changed.getBody().getTitle());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        return request(ifNoneMatch, new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses/ETAG");
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
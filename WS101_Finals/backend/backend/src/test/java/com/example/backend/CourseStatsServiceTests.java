@@ -0,0 +1,101 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// CourseStatsService against fake repositories, so the test decides what the "database"
+// holds and what happens while a course is being counted
+class CourseStatsServiceTests {
+
+    private final CourseStatsService courseStats = new CourseStatsService();
+
+    private volatile long studentsInDb = 3;
+    private volatile Runnable duringCount = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(courseStats, "userRepository", fake(UserRepository.class, method -> {
+            if (!method.equals("countByRoleAndCourseId")) throw new UnsupportedOperationException(method);
+            duringCount.run();
+            return studentsInDb;
+        }));
+        ReflectionTestUtils.setField(courseStats, "subjectRepository", fake(SubjectRepository.class, method -> switch (method) {
+            case "findCodesByCourseId" -> List.of();
+            case "findCourseIdByCode" -> "BSIT";
+            default -> throw new UnsupportedOperationException(method);
+        }));
+    }
+
+    @Test
+    void followsStudentsWithTheSameRoleMatchAsTheCount() {
+        assertEquals(3L, students());
+
+        courseStats.userCreated(user("student", "BSIT"));
+        courseStats.userCreated(user("Student", "BSIT"));
+        courseStats.userCreated(user("student", "BSBIO"));
+        assertEquals(4L, students());
+
+        courseStats.userDeleted(user("student", "BSIT"));
+        assertEquals(3L, students());
+    }
+
+    @Test
+    void updateWhileTheCourseIsFirstCountedIsNotLost() throws Exception {
+        Thread[] enrolment = new Thread[1];
+        duringCount = () -> {
+            duringCount = () -> {};
+            enrolment[0] = Thread.startVirtualThread(() -> courseStats.userCreated(user("student", "BSIT")));
+            sleep(100);
+        };
+
+        courseStats.getStats("BSIT");
+        enrolment[0].join();
+
+        assertEquals(4L, students());
+    }
+
+    @Test
+    void reconcileKeepsUpdatesMadeWhileRecounting() {
+        assertEquals(3L, students());
+
+        // Two students the service never heard about, and one enrolled during the recount
+        studentsInDb = 5;
+        duringCount = () -> courseStats.userCreated(user("student", "BSIT"));
+        courseStats.reconcile();
+
+        assertEquals(6L, students());
+    }
+
+    private long students() {
+        return courseStats.getStats("BSIT").get("students");
+    }
+
+    private static User user(String role, String courseId) {
+        User user = new User();
+        user.setRole(role);
+        user.setCourseId(courseId);
+        return user;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Repository stand-in that answers by method name
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Function<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answers.apply(method.getName()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Insert throughput with pooled ids + JDBC batching vs IDENTITY ids. Run with ./gradlew benchmark.
+// Timings against in-memory H2 understate the gain (no network round trips), so the
+// statement counts are what the assertions use; on MySQL every statement is a round trip.
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.backend.SqlCapture")
+@ActiveProfiles("test")
+@Tag("benchmark")
+class IdAllocationBenchmark {
+
+    private static final int USERS = 5000;
+    private static final int CHUNK = 500;
+    private static final int QUIZZES = 1000;
+
+    @Autowired private BulkImportService bulkImportService;
+    @Autowired private ProfessorController professorController;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bulkUserCreation() {
+        // Warm up both paths once
+        identityInsert(CHUNK, "warmup-");
+        bulkImportService.importUsers(usersJson(CHUNK, "warmup-"), "application/json");
+
+        statistics.clear();
+        long start = System.nanoTime();
+        identityInsert(USERS, "identity-");
+        long identityNanos = System.nanoTime() - start;
+        long identityStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        BulkImportReport report = bulkImportService.importUsers(usersJson(USERS, "pooled-"), "application/json");
+        long pooledNanos = System.nanoTime() - start;
+        long pooledStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(USERS, report.created());
+        print("bulk user creation", USERS, identityNanos, identityStatements, pooledNanos, pooledStatements);
+        // IDENTITY: one insert per row. Pooled: one batch per 50 rows, one id fetch per 50 ids.
+        assertTrue(pooledStatements * 10 < identityStatements,
+                "expected far fewer statements, got " + pooledStatements + " vs " + identityStatements);
+    }
+
+    @Test
+    void createQuiz() {
+        Subject subject = new Subject();
+        subject.setCode("BENCH101");
+        subject.setCourseId("BSIT");
+        subject.setYearLevel(1);
+        subject.setSemester(1);
+        subjectRepository.save(subject);
+
+        assertEquals(200, professorController.createQuiz(quiz(0)).getStatusCode().value());
+        for (int i = 1; i < 100; i++) professorController.createQuiz(quiz(i));
+
+        // Baseline: the same two rows per request on IDENTITY ids
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < QUIZZES; i++) {
+            int n = i;
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.persist(new IdentityBaselineRow("Quiz " + n, "quiz"));
+                entityManager.persist(new IdentityBaselineRow("Quiz " + n, "material"));
+            });
+        }
+        long identityNanos = System.nanoTime() - start;
+        long identityStatements = statistics.getPrepareStatementCount();
+
+        SqlCapture.clear();
+        start = System.nanoTime();
+        for (int i = 0; i < QUIZZES; i++) professorController.createQuiz(quiz(i));
+        long pooledNanos = System.nanoTime() - start;
+        // Activity log rows are written by the background writer and not part of the request
+        long pooledStatements = SqlCapture.preparedOn(Thread.currentThread()).size();
+
+        print("createQuiz", QUIZZES, identityNanos, identityStatements, pooledNanos, pooledStatements);
+        // Per request exactly the two inserts and the materials version bump, no lookups. Ids
+        // come 50 at a time from id_generators, in an isolated transaction the inspector doesn't see.
+        assertEquals(3L * QUIZZES, pooledStatements);
+    }
+
+    // ==========================================
+    // HELPERS
+    // ==========================================
+    private void identityInsert(int count, String prefix) {
+        for (int from = 0; from < count; from += CHUNK) {
+            int offset = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = offset; i < Math.min(offset + CHUNK, count); i++) {
+                    entityManager.persist(new IdentityBaselineRow(prefix + i, "student"));
+                }
+            });
+            entityManager.clear();
+        }
+    }
+
+    private static ByteArrayInputStream usersJson(int count, String prefix) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"username\":\"").append(prefix).append(i).append("\",\"password\":\"pw\",\"role\":\"student\"}");
+        }
+        return new ByteArrayInputStream(json.append(']').toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> quiz(int n) {
+        return Map.of("title", "Quiz " + n, "subjectCode", "BENCH101", "link", "https://example.com/q" + n);
+    }
+
+    private static void print(String name, int rows, long identityNanos, long identityStatements,
+                              long pooledNanos, long pooledStatements) {
+        System.out.printf("%s (%d)%n", name, rows);
+        System.out.printf("  IDENTITY : %8.0f rows/s, %6d statements%n", rows / (identityNanos / 1e9), identityStatements);
+        System.out.printf("  pooled-lo: %8.0f rows/s, %6d statements%n", rows / (pooledNanos / 1e9), pooledStatements);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend;
+
+import jakarta.persistence.*;
+
+// Test-only table that still uses IDENTITY ids, as the baseline for IdAllocationBenchmark
+@Entity
+@Table(name = "benchmark_identity_rows")
+public class IdentityBaselineRow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+    private String role;
+
+    public IdentityBaselineRow() {}
+
+    public IdentityBaselineRow(String name, String role) {
+        this.name = name;
+        this.role = role;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getRole() { return role; }
+}
@@ -0,0 +1,95 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Course pictures and profile photos hold one blob reference for the original and one per
+// variant; replacing the picture or deleting its owner must give all of them back.
+@SpringBootTest(properties = {
+        "app.storage.backend=local",
+        "app.storage.local.root=build/test-objects"
+})
+@ActiveProfiles("test")
+class ImageBlobRefsTests {
+
+    @Autowired private AdminController adminController;
+    @Autowired private AuthController authController;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private StoredBlobRepository blobRepository;
+
+    @Test
+    void coursePictureReferencesAreReleased() throws Exception {
+        adminController.createCourse("IMG", "Pictures", "", "#fff", png("first.png", 1));
+        awaitVariants("IMG", null);
+        // Original plus the 320 and 640 wide variants (1280 would be an upscale)
+        assertEquals(3, blobRepository.count());
+        blobRepository.findAll().forEach(blob -> assertEquals(1, blob.getRefCount()));
+
+        String firstImage = courseRepository.findById("IMG").orElseThrow().getImage();
+        adminController.updateCourse("IMG", "Pictures", "", "#fff", png("second.png", 2));
+        awaitVariants("IMG", firstImage);
+        assertEquals(3, blobRepository.count(), "the first picture and its variants are gone");
+
+        adminController.deleteCourse("IMG");
+        assertEquals(0, blobRepository.count());
+    }
+
+    @Test
+    void profilePhotoReferencesAreReleased() throws Exception {
+        User user = new User();
+        user.setUsername("photo-user");
+        user.setPassword("secret");
+        user.setRole("student");
+        Long id = userRepository.save(user).getId();
+
+        authController.uploadProfilePhoto(id, png("me.png", 3), new MockHttpServletRequest());
+        await(() -> userRepository.findById(id).orElseThrow().getProfileImageSrcset() != null);
+        assertEquals(3, blobRepository.count());
+
+        adminController.deleteUser(id);
+        assertEquals(0, blobRepository.count());
+    }
+
+    // Until the course shows a picture other than previousImage, with its variants
+    private void awaitVariants(String courseId, String previousImage) throws InterruptedException {
+        await(() -> courseRepository.findById(courseId)
+                .filter(c -> c.getImage() != null && !c.getImage().equals(previousImage))
+                .filter(c -> c.getImageSrcset() != null)
+                .isPresent());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) Thread.sleep(10);
+        assertTrue(condition.getAsBoolean(), "upload and resizing did not finish in time");
+    }
+
+    // Noise, so every seed gives different content (and no deduplication between them)
+    private static MockMultipartFile png(String name, long seed) throws IOException {
+        BufferedImage image = new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < image.getHeight(); y += 10) {
+            for (int x = 0; x < image.getWidth(); x += 10) {
+                int rgb = random.nextInt(0xFFFFFF);
+                for (int dy = 0; dy < 10; dy++) for (int dx = 0; dx < 10; dx++) image.setRGB(x + dx, y + dy, rgb);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("file", name, "image/png", out.toByteArray());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The resizing step on its own (storing the variants is the same path as any upload)
+class ImageDerivativeServiceTests {
+
+    @Test
+    void keepsAspectRatio() {
+        BufferedImage scaled = ImageDerivativeService.scale(new BufferedImage(1600, 900, BufferedImage.TYPE_INT_RGB), 320, false);
+        assertEquals(320, scaled.getWidth());
+        assertEquals(180, scaled.getHeight());
+        assertFalse(scaled.getColorModel().hasAlpha());
+    }
+
+    @Test
+    void keepsTransparency() {
+        BufferedImage scaled = ImageDerivativeService.scale(redSquareOnTransparent(), 320, true);
+        assertEquals(320, scaled.getWidth());
+        assertTrue(scaled.getColorModel().hasAlpha());
+        // The square (200..300 before, 128..192 after) stays opaque red, around it stays see-through
+        assertEquals(0xFFFF0000, scaled.getRGB(160, 160), "opaque pixels stay opaque");
+        assertEquals(0, scaled.getRGB(10, 10) >>> 24, "transparent pixels stay transparent");
+        assertEquals(0, scaled.getRGB(100, 160) >>> 24);
+    }
+
+    @Test
+    void flattensTransparencyOntoWhiteWithoutAlpha() {
+        BufferedImage scaled = ImageDerivativeService.scale(redSquareOnTransparent(), 320, false);
+        assertEquals(0xFFFF0000, scaled.getRGB(160, 160));
+        assertEquals(0xFFFFFFFF, scaled.getRGB(10, 10), "not black");
+    }
+
+    private static BufferedImage redSquareOnTransparent() {
+        BufferedImage image = new BufferedImage(500, 500, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.RED);
+            g.fillRect(200, 200, 100, 100);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    @Test
+    void supportsOnlyImages() {
+        assertTrue(ImageDerivativeService.supports("Course-BG.PNG"));
+        assertTrue(ImageDerivativeService.supports("me.jpeg"));
+        assertFalse(ImageDerivativeService.supports("lesson.pdf"));
+        assertFalse(ImageDerivativeService.supports(null));
+    }
+}
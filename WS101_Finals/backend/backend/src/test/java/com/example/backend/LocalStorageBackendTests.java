@@ -0,0 +1,80 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalStorageBackendTests {
+
+    @TempDir Path tempDir;
+
+    private LocalStorageBackend storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalStorageBackend(tempDir.resolve("objects").toString(), "https://cdn.example");
+    }
+
+    @Test
+    void storesContentAddressed() throws Exception {
+        byte[] content = "lesson".getBytes();
+        StoredObject stored = storage.store(Files.write(tempDir.resolve("a"), content), "Week 1.PDF");
+
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(hash + ".pdf", stored.key());
+        assertEquals("https://cdn.example/api/files/" + hash + ".pdf", stored.url());
+        assertEquals(hash, LocalStorageBackend.hashOf(stored.key()));
+        Path path = storage.resolve(stored.key());
+        assertEquals(tempDir.resolve("objects").resolve(hash.substring(0, 2)).resolve(stored.key()).toAbsolutePath(), path);
+        assertArrayEquals(content, Files.readAllBytes(path));
+    }
+
+    @Test
+    void sameContentIsWrittenOnce() throws Exception {
+        StoredObject first = storage.store(Files.write(tempDir.resolve("a"), new byte[]{1, 2}), "a.png");
+        StoredObject second = storage.store(Files.write(tempDir.resolve("b"), new byte[]{1, 2}), "b.png");
+
+        assertEquals(first.key(), second.key());
+        try (var files = Files.list(storage.resolve(first.key()).getParent())) {
+            // No leftover .part files either
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void oddExtensionsAreDropped() throws Exception {
+        StoredObject stored = storage.store(Files.write(tempDir.resolve("a"), new byte[]{3}), "notes.tar gz!");
+        assertFalse(stored.key().contains("."));
+        assertTrue(Files.exists(storage.resolve(stored.key())));
+    }
+
+    @Test
+    void onlyObjectNamesResolve() {
+        assertNull(storage.resolve(null));
+        assertNull(storage.resolve("../../etc/passwd"));
+        assertNull(storage.resolve("A".repeat(64)));
+        assertNull(storage.resolve("a".repeat(64) + "/x"));
+    }
+
+    @Test
+    void deleteRemovesTheObjectAndIgnoresUnknownKeys() throws Exception {
+        StoredObject stored = storage.store(Files.write(tempDir.resolve("a"), new byte[]{4}), "x.txt");
+
+        storage.delete(stored.key());
+        assertFalse(Files.exists(storage.resolve(stored.key())));
+        storage.delete(stored.key());
+        storage.delete("../a");
+        assertTrue(Files.exists(tempDir.resolve("a")));
+    }
+}
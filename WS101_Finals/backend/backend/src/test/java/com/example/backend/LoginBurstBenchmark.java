@@ -0,0 +1,107 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exam-start login storm: every student logs in at the same moment, some retry.
+// Run with ./gradlew benchmark. Uses the production BCrypt cost; the latency percentiles
+// are printed, the assertions only check correctness and that the username lookups are cached.
+@SpringBootTest(properties = "app.auth.bcrypt-strength=10")
+@ActiveProfiles("test")
+@Tag("benchmark")
+class LoginBurstBenchmark {
+
+    private static final int STUDENTS = 200;
+    private static final int LOGINS_PER_STUDENT = 3;
+
+    @Autowired private AuthController authController;
+    @Autowired private LoginService loginService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        // Hashing 200 passwords at cost 10 would dominate the setup; one hash shared is the same work per login
+        String hash = loginService.hashPassword("exam-password");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            User user = new User();
+            user.setUsername("student-" + i);
+            user.setPassword(hash);
+            user.setRole("student");
+            users.add(user);
+        }
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+    }
+
+    @Test
+    void burstOfConcurrentLogins() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int total = STUDENTS * LOGINS_PER_STUDENT;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        long wallStart;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                String username = "student-" + (i % STUDENTS);
+                results.add(clients.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    ResponseEntity<?> response = authController.login(Map.of("username", username, "password", "exam-password"));
+                    assertEquals(200, response.getStatusCode().value());
+                    return System.nanoTime() - begin;
+                }));
+            }
+            wallStart = System.nanoTime();
+            start.countDown();
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+
+        long[] latencies = new long[total];
+        for (int i = 0; i < total; i++) latencies[i] = results.get(i).get();
+        Arrays.sort(latencies);
+
+        System.out.printf("%n=== login burst: %d logins, %d students, %d cores ===%n",
+                total, STUDENTS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  wall time  %8.1f ms  (%.0f logins/s)%n", wallNanos / 1e6, total / (wallNanos / 1e9));
+        System.out.printf("  p50        %8.1f ms%n", percentile(latencies, 50) / 1e6);
+        System.out.printf("  p95        %8.1f ms%n", percentile(latencies, 95) / 1e6);
+        System.out.printf("  p99        %8.1f ms%n", percentile(latencies, 99) / 1e6);
+        System.out.printf("  max        %8.1f ms%n", latencies[total - 1] / 1e6);
+        System.out.printf("  user lookups: %d%n", statistics.getQueryExecutionCount());
+
+        // At most one lookup per student; retries are served from the credential cache
+        assertTrue(statistics.getQueryExecutionCount() <= STUDENTS,
+                "expected at most " + STUDENTS + " lookups, got " + statistics.getQueryExecutionCount());
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginServiceTests {
+
+    @Autowired private LoginService loginService;
+    @Autowired private AdminController adminController;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void legacyPlaintextPasswordIsHashedOnLogin() {
+        User user = user("legacy-user", "secret");
+        userRepository.save(user);
+
+        assertNull(loginService.login("legacy-user", "wrong"));
+        assertNotNull(loginService.login("legacy-user", "secret"));
+
+        String stored = userRepository.findByUsername("legacy-user").getPassword();
+        assertTrue(LoginService.isHashed(stored), "password still plaintext: " + stored);
+        assertNotNull(loginService.login("legacy-user", "secret"));
+        assertNull(loginService.login("legacy-user", stored), "the hash itself must not work as a password");
+    }
+
+    @Test
+    void createdUsersGetHashedPasswords() {
+        adminController.createUser(user("new-user", "secret"));
+
+        assertTrue(LoginService.isHashed(userRepository.findByUsername("new-user").getPassword()));
+        UserSummary summary = loginService.login("new-user", "secret");
+        assertEquals("new-user", summary.username());
+    }
+
+    @Test
+    void repeatedLoginsSkipTheDatabaseUntilTheUserChanges() {
+        User saved = userRepository.save(user("cached-user", loginService.hashPassword("secret")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        assertNotNull(loginService.login("cached-user", "secret"));
+        statistics.clear();
+        for (int i = 0; i < 5; i++) assertNotNull(loginService.login("cached-user", "secret"));
+        // (not statement count: the activity log writer inserts in the background)
+        assertEquals(0, statistics.getQueryExecutionCount());
+
+        adminController.deleteUser(saved.getId());
+        assertNull(loginService.login("cached-user", "secret"));
+    }
+
+    private static User user(String username, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setRole("student");
+        return user;
+    }
+}
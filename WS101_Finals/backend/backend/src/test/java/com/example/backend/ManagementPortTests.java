@@ -0,0 +1,41 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Metrics are only served on the (unpublished) management port, health probes on both
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ManagementPortTests {
+
+    @Value("${local.server.port}") private int port;
+    @Value("${local.management.port}") private int managementPort;
+
+    @Test
+    void prometheusIsNotOnThePublicPort() throws Exception {
+        assertEquals(404, get(port, "/actuator/prometheus").statusCode());
+        assertEquals(200, get(port, "/livez").statusCode());
+        assertEquals(200, get(port, "/readyz").statusCode());
+
+        HttpResponse<String> metrics = get(managementPort, "/actuator/prometheus");
+        assertEquals(200, metrics.statusCode());
+        assertTrue(metrics.body().contains("http_server_requests"));
+    }
+
+    private static HttpResponse<String> get(int port, String path) throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Looks at the SQL behind the list endpoints: the course image (LONGTEXT) and the
+// user password must not be selected there, and the dashboard counts must not load subjects.
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.backend.SqlCapture")
+@ActiveProfiles("test")
+class ProjectionSqlTests {
+
+    // Matches "image" anywhere except the "image is not null" check in the summary query
+    private static final String SELECTS_IMAGE = "(?s).*\\bimage\\b(?! is not null).*";
+
+    @Autowired private AdminController adminController;
+    @Autowired private CourseController courseController;
+    @Autowired private ProfessorController professorController;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private UserRepository userRepository;
+
+    private static final byte[] PICTURE = new byte[150_000];
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+        userRepository.deleteAllInBatch();
+
+        Course withImage = new Course();
+        withImage.setId("SQLT");
+        withImage.setTitle("With image");
+        withImage.setImage("data:image/png;base64," + Base64.getEncoder().encodeToString(PICTURE));
+        courseRepository.save(withImage);
+
+        Course withoutImage = new Course();
+        withoutImage.setId("SQLT2");
+        withoutImage.setTitle("Without image");
+        courseRepository.save(withoutImage);
+
+        User user = new User();
+        user.setUsername("sql-test-user");
+        user.setPassword("secret");
+        user.setRole("student");
+        userRepository.save(user);
+
+        SqlCapture.clear();
+    }
+
+    @Test
+    void courseListLeavesImageOut() {
+        List<CourseSummary> courses = adminController.getAllCourses(webRequest()).getBody();
+
+        List<String> sql = SqlCapture.touching("courses");
+        assertFalse(sql.isEmpty());
+        sql.forEach(s -> assertFalse(s.matches(SELECTS_IMAGE), "image selected by: " + s));
+
+        CourseSummary withImage = courses.stream().filter(c -> c.id().equals("SQLT")).findFirst().orElseThrow();
+        CourseSummary withoutImage = courses.stream().filter(c -> c.id().equals("SQLT2")).findFirst().orElseThrow();
+        assertEquals("/api/courses/SQLT/image", withImage.image());
+        assertNull(withoutImage.image());
+    }
+
+    @Test
+    void imageIsServedOnItsOwn() {
+        ResponseEntity<byte[]> response = courseController.getCourseImage("SQLT", webRequest());
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("image/png", response.getHeaders().getContentType().toString());
+        assertArrayEquals(PICTURE, response.getBody());
+        // Only the image column, for one row
+        List<String> sql = SqlCapture.touching("courses");
+        assertEquals(1, sql.size());
+        assertFalse(sql.get(0).contains("title"));
+    }
+
+    @Test
+    void userListLeavesPasswordOut() {
+        List<UserSummary> users = adminController.getAllUsers();
+
+        assertEquals(1, users.size());
+        List<String> sql = SqlCapture.touching("users");
+        assertFalse(sql.isEmpty());
+        sql.forEach(s -> assertFalse(s.contains("password"), "password selected by: " + s));
+    }
+
+    @Test
+    void dashboardStatsOnlySelectSubjectCodes() {
+        Subject subject = new Subject();
+        subject.setCode("SQLT101");
+        subject.setTitle("Subject");
+        subject.setCourseId("SQLT");
+        subjectRepository.save(subject);
+        SqlCapture.clear();
+
+        professorController.getStats("SQLT");
+
+        List<String> sql = SqlCapture.touching("subjects");
+        assertTrue(sql.size() >= 1);
+        sql.forEach(s -> assertFalse(s.contains("title"), "whole subject loaded by: " + s));
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.backend;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Checks that the quiz/material endpoints only load the rows they return,
+// no matter how many unrelated rows are in the table.
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryLayerTests {
+
+    @Autowired private ProfessorController professorController;
+    @Autowired private StudentController studentController;
+    @Autowired private SubjectRepository subjectRepository;
+    @Autowired private QuizRepository quizRepository;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private CatalogService catalogService;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        quizRepository.deleteAll();
+        materialRepository.deleteAll();
+        subjectRepository.deleteAll();
+
+        subjectRepository.save(subject("CC101", "BSIT"));
+        subjectRepository.save(subject("BIO101", "BSBIO"));
+
+        // The rows the endpoints should return
+        quizRepository.save(quiz("CC101"));
+        quizRepository.save(quiz("CC101"));
+        materialRepository.save(material("CC101", "pdf", 1L));
+        materialRepository.save(material("CC101", "video", 1L));
+        materialRepository.save(material("CC101", "pdf", 2L));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void rowsFetchedStayBoundedAsTableGrows() {
+        List<Long> small = loadCounts();
+        addNoise(200);
+        List<Long> large = loadCounts();
+        addNoise(2000);
+        List<Long> huge = loadCounts();
+
+        assertEquals(small, large);
+        assertEquals(small, huge);
+        assertEquals(List.of(2L, 3L, 2L, 2L), small);
+    }
+
+    @Test
+    void studentHomeQueryCountDoesNotGrowWithSubjects() {
+        // Own course, so the CC101 rows above (pointing at made-up module ids) stay out of it
+        Course course = new Course();
+        course.setId("BSCS");
+        course.setTitle("BSCS");
+        courseRepository.save(course);
+
+        addHomeSubject("CS0");
+        long one = homeStatements();
+        for (int i = 1; i <= 20; i++) addHomeSubject("CS" + i);
+        long many = homeStatements();
+
+        // Course summary, subject list version, modules and materials; the subject list itself
+        // comes from the catalog cache
+        assertEquals(4, one);
+        assertEquals(4, many);
+        StudentHome home = studentController.getHome("BSCS", null, null).getBody();
+        assertEquals(21, home.subjects().size());
+        StudentHome.SubjectEntry cs7 = home.subjects().stream()
+                .filter(e -> e.subject().getCode().equals("CS7")).findFirst().orElseThrow();
+        assertEquals(1, cs7.modules().size());
+        assertEquals(1, cs7.modules().get(0).materials().size());
+    }
+
+    private void addHomeSubject(String code) {
+        subjectRepository.save(subject(code, "BSCS"));
+        Module module = new Module();
+        module.setSubjectCode(code);
+        module.setModuleNumber(1);
+        moduleRepository.save(module);
+        materialRepository.save(material(code, "pdf", module.getId()));
+    }
+
+    // SQL statements for one /home call once the subject list is cached again
+    private long homeStatements() {
+        catalogService.subjectsChanged("BSCS");
+        studentController.getHome("BSCS", null, null);
+        statistics.clear();
+        studentController.getHome("BSCS", null, null);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Entity loads per endpoint call, in a fixed order
+    private List<Long> loadCounts() {
+        List<Long> counts = new ArrayList<>();
+        counts.add(countLoads(() -> professorController.getQuizzes("CC101")));
+        counts.add(countLoads(() -> professorController.getAllMaterials("CC101", null)));
+        counts.add(countLoads(() -> studentController.getStudentQuizzes("BSIT")));
+        counts.add(countLoads(() -> studentController.getMaterials("CC101", null, 1L)));
+        return counts;
+    }
+
+    private long countLoads(Supplier<List<?>> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getEntityLoadCount();
+    }
+
+    // Rows for another subject that none of the calls above should touch
+    private void addNoise(int count) {
+        List<Quiz> quizzes = new ArrayList<>();
+        List<LearningMaterial> materials = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            quizzes.add(quiz("BIO101"));
+            materials.add(material("BIO101", "pdf", 1L));
+        }
+        quizRepository.saveAll(quizzes);
+        materialRepository.saveAll(materials);
+    }
+
+    private static Subject subject(String code, String courseId) {
+        Subject s = new Subject();
+        s.setCode(code);
+        s.setTitle(code);
+        s.setCourseId(courseId);
+        return s;
+    }
+
+    private static Quiz quiz(String subjectCode) {
+        Quiz q = new Quiz();
+        q.setTitle("Quiz");
+        q.setSubjectCode(subjectCode);
+        q.setDateCreated(LocalDate.now());
+        return q;
+    }
+
+    private static LearningMaterial material(String subjectCode, String type, Long moduleId) {
+        LearningMaterial m = new LearningMaterial();
+        m.setTitle("Lesson");
+        m.setSubjectCode(subjectCode);
+        m.setType(type);
+        m.setModuleId(moduleId);
+        return m;
+    }
+}
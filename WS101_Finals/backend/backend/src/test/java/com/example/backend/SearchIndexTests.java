@@ -0,0 +1,101 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// SearchIndex on its own, fed through the same methods the controllers call
+class SearchIndexTests {
+
+    private final SearchIndex index = new SearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.indexSubject(subject("CC102", "Computer Programming 2", "BSIT"));
+        index.indexSubject(subject("BIO101", "General Biology", "BSBIO"));
+        index.indexModule(module(1L, "CC102", "Introduction to Java", "Basic syntax and variables"));
+        index.indexModule(module(2L, "BIO101", "Introduction to Cells", "Cell structure"));
+        index.indexMaterial(material(10L, "CC102", "Java Collections Framework"));
+    }
+
+    @Test
+    void matchesPrefixes() {
+        List<SearchIndex.Hit> hits = index.search("intro", null, 10);
+        assertEquals(2, hits.size());
+        assertTrue(hits.stream().allMatch(h -> h.type() == SearchIndex.Type.MODULE));
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals(List.of("1", "10"), ids(index.search("jaba", null, 10)));
+        assertEquals(List.of("BIO101"), ids(index.search("biolgy", null, 10)));
+    }
+
+    @Test
+    void allWordsMustMatchAndTitleWordsRankFirst() {
+        assertEquals(List.of("1"), ids(index.search("intro java", null, 10)));
+        // Description words are searchable too
+        assertEquals(List.of("1"), ids(index.search("syntax", null, 10)));
+    }
+
+    @Test
+    void scopesByCourse() {
+        assertEquals(List.of("1"), ids(index.search("introduction", "BSIT", 10)));
+        assertEquals(List.of("2"), ids(index.search("introduction", "BSBIO", 10)));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.indexModule(module(1L, "CC102", "Object Oriented Design", null));
+        assertEquals(List.of("2"), ids(index.search("introduction", null, 10)));
+        assertEquals(List.of("1"), ids(index.search("oriented", null, 10)));
+
+        index.removeMaterial(10L);
+        assertTrue(index.search("collections", null, 10).isEmpty());
+
+        // Its modules and lessons go with it
+        index.removeSubject("BIO101");
+        assertTrue(index.search("cells", null, 10).isEmpty());
+        assertTrue(index.search("biology", null, 10).isEmpty());
+        assertEquals(List.of("1"), ids(index.search("oriented", "BSIT", 10)));
+    }
+
+    @Test
+    void editDistanceStopsEarly() {
+        assertEquals(1, SearchIndex.editDistance("java", "jave", 2));
+        assertEquals(3, SearchIndex.editDistance("java", "python", 2));
+    }
+
+    private static List<String> ids(List<SearchIndex.Hit> hits) {
+        return hits.stream().map(SearchIndex.Hit::id).toList();
+    }
+
+    private static Subject subject(String code, String title, String courseId) {
+        Subject s = new Subject();
+        s.setCode(code);
+        s.setTitle(title);
+        s.setCourseId(courseId);
+        return s;
+    }
+
+    private static Module module(Long id, String subjectCode, String title, String description) {
+        Module m = new Module();
+        m.setId(id);
+        m.setSubjectCode(subjectCode);
+        m.setTitle(title);
+        m.setDescription(description);
+        return m;
+    }
+
+    private static LearningMaterial material(Long id, String subjectCode, String title) {
+        LearningMaterial m = new LearningMaterial();
+        m.setId(id);
+        m.setSubjectCode(subjectCode);
+        m.setTitle(title);
+        return m;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Records every SQL statement Hibernate prepares, and on which thread. Registered by
+// ProjectionSqlTests and IdAllocationBenchmark through
+// hibernate.session_factory.statement_inspector, which instantiates it by class name.
+public class SqlCapture implements StatementInspector {
+
+    private record Captured(String sql, Thread thread) {}
+
+    private static final List<Captured> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(new Captured(sql.toLowerCase(Locale.ROOT), Thread.currentThread()));
+        return sql;
+    }
+
+    static void clear() { statements.clear(); }
+
+    // Captured statements that mention the given table
+    static List<String> touching(String table) {
+        List<String> result = new ArrayList<>();
+        for (Captured captured : statements) {
+            if (captured.sql().matches("(?s).*\\b" + table + "\\b.*")) result.add(captured.sql());
+        }
+        return result;
+    }
+
+    // Statements prepared on the given thread, leaving out background work (the activity log writer)
+    static List<String> preparedOn(Thread thread) {
+        List<String> result = new ArrayList<>();
+        for (Captured captured : statements) {
+            if (captured.thread() == thread) result.add(captured.sql());
+        }
+        return result;
+    }
+}
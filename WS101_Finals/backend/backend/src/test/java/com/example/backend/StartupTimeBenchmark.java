@@ -0,0 +1,83 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cold start to first answered request, default vs the fast-start profile (lazy beans, no
+// Hibernate schema validation). Run with ./gradlew benchmark. Every run boots the real app with
+// Tomcat on a random port and times until GET /api/admin/courses (what home.js calls first)
+// returns. All runs share one JVM, so the first boot is a discarded warm-up and the two modes
+// alternate; CDS and AOT only show up in the Docker image ("Started BackendApplication in ...").
+@Tag("benchmark")
+class StartupTimeBenchmark {
+
+    private static final int RUNS = 3;
+
+    private record Startup(long readyMs, long firstRequestMs, boolean controllerCreatedAtStartup) {}
+
+    @Test
+    void fastStartDefersBeansAndAnswersFirstRequest() throws Exception {
+        start(false); // warm-up: class loading and JIT, whatever the mode
+
+        List<Startup> eager = new ArrayList<>();
+        List<Startup> fast = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            eager.add(start(false));
+            fast.add(start(true));
+        }
+
+        System.out.printf("default:    ready %d ms, first request answered at %d ms (median of %d)%n",
+                median(eager, Startup::readyMs), median(eager, Startup::firstRequestMs), RUNS);
+        System.out.printf("fast-start: ready %d ms, first request answered at %d ms (median of %d)%n",
+                median(fast, Startup::readyMs), median(fast, Startup::firstRequestMs), RUNS);
+
+        // Timings vary too much between machines to assert on; what the profile does doesn't
+        assertTrue(eager.stream().allMatch(Startup::controllerCreatedAtStartup));
+        assertFalse(fast.stream().anyMatch(Startup::controllerCreatedAtStartup));
+    }
+
+    private Startup start(boolean fastStart) throws Exception {
+        // "test" last so its create-drop schema wins over fast-start's ddl-auto=none
+        String[] profiles = fastStart ? new String[]{"fast-start", "test"} : new String[]{"test"};
+        long begin = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0")
+                .run()) {
+            long ready = System.nanoTime();
+            boolean controllerCreated = context.getBeanFactory().containsSingleton("adminController");
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            try (HttpClient client = HttpClient.newHttpClient()) {
+                HttpResponse<String> response = client.send(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/courses")).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                long answered = System.nanoTime();
+                assertEquals(200, response.statusCode());
+                assertTrue(context.getBeanFactory().containsSingleton("adminController"));
+                return new Startup((ready - begin) / 1_000_000, (answered - begin) / 1_000_000, controllerCreated);
+            }
+        }
+    }
+
+    private static long median(List<Startup> runs, ToLongFunction<Startup> value) {
+        long[] values = runs.stream().mapToLong(value).toArray();
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+}
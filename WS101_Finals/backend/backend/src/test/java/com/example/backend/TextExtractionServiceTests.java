@@ -0,0 +1,77 @@
+package com.example.backend;
+
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFTextBox;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// DOCX/PPTX text comes out of the SAX pass in reading order and stops at max-chars
+@SpringBootTest(properties = "app.extraction.max-chars=2000")
+@ActiveProfiles("test")
+class TextExtractionServiceTests {
+
+    @TempDir Path tempDir;
+
+    @Autowired private TextExtractionService textExtraction;
+    @Autowired private LearningMaterialRepository materialRepository;
+    @Autowired private MaterialTextRepository textRepository;
+
+    @Test
+    void longDocumentIsCutAtTheCharLimit() throws Exception {
+        Path docx = tempDir.resolve("upload-1");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(docx)) {
+            for (int i = 0; i < 5000; i++) document.createParagraph().createRun().setText("Paragraph " + i + " of the lesson");
+            document.write(out);
+        }
+
+        MaterialText text = extract("notes.docx", docx);
+
+        assertEquals(MaterialText.DONE, text.getStatus());
+        assertTrue(text.isTruncated());
+        assertTrue(text.getText().length() <= 2000);
+        assertTrue(text.getText().startsWith("Paragraph 0 of the lesson\nParagraph 1 of the lesson"));
+    }
+
+    @Test
+    void slidesAreReadInOrder() throws Exception {
+        Path pptx = tempDir.resolve("upload-2");
+        try (XMLSlideShow show = new XMLSlideShow(); OutputStream out = Files.newOutputStream(pptx)) {
+            for (int i = 1; i <= 11; i++) {
+                XSLFTextBox box = show.createSlide().createTextBox();
+                box.setText("Slide " + i);
+            }
+            show.write(out);
+        }
+
+        MaterialText text = extract("deck.pptx", pptx);
+
+        assertEquals(MaterialText.DONE, text.getStatus());
+        assertFalse(text.isTruncated());
+        assertEquals("Slide 1\nSlide 2\nSlide 3\nSlide 4\nSlide 5\nSlide 6\nSlide 7\nSlide 8\nSlide 9\nSlide 10\nSlide 11",
+                text.getText());
+    }
+
+    private MaterialText extract(String filename, Path file) throws InterruptedException {
+        LearningMaterial material = new LearningMaterial();
+        material.setTitle(filename);
+        material.setSubjectCode("CC101");
+        material.setType("doc");
+        Long id = materialRepository.save(material).getId();
+
+        textExtraction.submit(id, filename, file);
+        for (int i = 0; i < 500 && !textRepository.existsById(id); i++) Thread.sleep(10);
+        return textRepository.findById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The filter with enforcement on, driven with real tokens for real users
+@SpringBootTest(properties = "app.auth.token.enforce=true")
+@ActiveProfiles("test")
+class TokenAuthFilterTests {
+
+    @Autowired private TokenAuthFilter filter;
+    @Autowired private TokenService tokenService;
+    @Autowired private AdminController adminController;
+    @Autowired private UserRepository userRepository;
+
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        student = new User();
+        student.setUsername("filter-student");
+        student.setPassword("secret");
+        student.setRole("student");
+        student.setCourseId("BSIT");
+        student = userRepository.save(student);
+    }
+
+    @Test
+    void studentsCanReadModulesAndMaterialsButNotAdminData() throws Exception {
+        String token = token(student);
+
+        assertEquals(200, status("GET", "/api/admin/modules", token));
+        assertEquals(200, status("GET", "/api/admin/materials", token));
+        assertEquals(200, status("GET", "/api/student/home", token));
+        assertEquals(403, status("GET", "/api/admin/users", token));
+        assertEquals(403, status("POST", "/api/admin/modules", token));
+        assertEquals(403, status("GET", "/api/professor/materials", token));
+        assertEquals(401, status("GET", "/api/admin/modules", null));
+    }
+
+    @Test
+    void tokensOfDeletedUsersStopWorking() throws Exception {
+        String token = token(student);
+        assertEquals(200, status("GET", "/api/student/home", token));
+
+        adminController.deleteUser(student.getId());
+
+        assertEquals(401, status("GET", "/api/student/home", token));
+    }
+
+    @Test
+    void tokensIssuedForAnotherRoleStopWorking() throws Exception {
+        String token = token(student);
+        student.setRole("professor");
+        userRepository.save(student);
+        tokenService.userChanged(student.getId());
+
+        assertEquals(401, status("GET", "/api/student/home", token));
+    }
+
+    private String token(User user) {
+        return tokenService.issue(new UserSummary(user.getId(), user.getUsername(), user.getRole(),
+                user.getCourseId(), null, null)).token();
+    }
+
+    // What the filter answers; 200 when it lets the request through
+    private int status(String method, String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (token != null) request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenServiceTests {
+
+    private static final String OLD_KEY = "2024a:" + Base64.getEncoder().encodeToString("old-secret-old-secret-old-secret".getBytes());
+    private static final String NEW_KEY = "2025a:" + Base64.getEncoder().encodeToString("new-secret-new-secret-new-secret".getBytes());
+
+    private final UserSummary student = new UserSummary(42L, "juan", "student", "BSIT", null, null);
+
+    @Test
+    void issuedTokensVerifyWithoutTheDatabase() {
+        TokenService tokens = tokens(OLD_KEY, "2024a", 60);
+
+        AuthPrincipal principal = tokens.verify(tokens.issue(student).token());
+        assertNotNull(principal);
+        assertEquals(42L, principal.userId());
+        assertEquals("student", principal.role());
+        assertEquals("BSIT", principal.courseId());
+    }
+
+    @Test
+    void tamperedOrExpiredTokensAreRejected() {
+        TokenService tokens = tokens(OLD_KEY, "2024a", 60);
+        String token = tokens.issue(student).token();
+
+        // Same signature, claims changed to admin
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"42\",\"role\":\"admin\",\"exp\":9999999999}".getBytes()) + "." + parts[2];
+        assertNull(tokens.verify(forged));
+        assertNull(tokens.verify("not-a-token"));
+        assertNull(tokens.verify(token.substring(0, token.length() - 2)));
+
+        TokenService shortLived = tokens(OLD_KEY, "2024a", -5);
+        assertNull(shortLived.verify(shortLived.issue(student).token()));
+    }
+
+    @Test
+    void rotatedKeysKeepOldTokensValidUntilRemoved() {
+        String oldToken = tokens(OLD_KEY, "2024a", 60).issue(student).token();
+
+        // New key active, old one still listed
+        TokenService rotated = tokens(OLD_KEY + "," + NEW_KEY, "2025a", 60);
+        assertNotNull(rotated.verify(oldToken));
+        String newToken = rotated.issue(student).token();
+
+        // Old key dropped
+        TokenService retired = tokens(NEW_KEY, "2025a", 60);
+        assertNull(retired.verify(oldToken));
+        assertNotNull(retired.verify(newToken));
+    }
+
+    private static TokenService tokens(String keys, String active, long ttlMinutes) {
+        TokenService tokens = new TokenService();
+        ReflectionTestUtils.setField(tokens, "objectMapper", JsonMapper.builder().build());
+        ReflectionTestUtils.setField(tokens, "keys", keys);
+        ReflectionTestUtils.setField(tokens, "activeKeyId", active);
+        ReflectionTestUtils.setField(tokens, "ttlMinutes", ttlMinutes);
+        ReflectionTestUtils.invokeMethod(tokens, "init");
+        return tokens;
+    }
+}
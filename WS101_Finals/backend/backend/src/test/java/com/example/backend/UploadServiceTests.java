@@ -0,0 +1,282 @@
+package com.example.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs UploadService against a local fake instead of Cloudinary
+class UploadServiceTests {
+
+    @TempDir Path tempDir;
+
+    private final FakeStorage storage = new FakeStorage();
+    private final FakeBlobs blobs = new FakeBlobs();
+    private final UploadService uploadService = new UploadService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(uploadService, "storage", storage);
+        ReflectionTestUtils.setField(uploadService, "blobService", blobs);
+        ReflectionTestUtils.setField(uploadService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(uploadService, "spoolDir", tempDir.toString());
+        ReflectionTestUtils.setField(uploadService, "maxConcurrent", 2);
+        ReflectionTestUtils.setField(uploadService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(uploadService, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(uploadService, "jobRetentionMinutes", 60L);
+        ReflectionTestUtils.setField(uploadService, "maxSessionBytes", 1024L);
+        uploadService.init();
+    }
+
+    @Test
+    void retriesUntilTheBackendAcceptsTheFile() throws Exception {
+        storage.failuresLeft.set(2);
+        AtomicReference<String> savedUrl = new AtomicReference<>();
+
+        UploadJob job = uploadService.submit(file("lesson.pdf"), stored -> savedUrl.set(stored.url()));
+        awaitFinished(job);
+
+        assertEquals(UploadJob.Status.DONE, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals("fake://lesson.pdf", savedUrl.get());
+        assertEquals("fake://lesson.pdf", job.getUrl());
+        assertTrue(awaitEmpty(tempDir), "spooled file should be removed");
+        // Every attempt is timed
+        assertEquals(2, meterRegistry.get("app.upload.store").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("app.upload.store").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void failsAfterMaxAttempts() throws Exception {
+        storage.failuresLeft.set(10);
+        AtomicReference<String> savedUrl = new AtomicReference<>();
+
+        UploadJob job = uploadService.submit(file("video.mp4"), stored -> savedUrl.set(stored.url()));
+        awaitFinished(job);
+
+        assertEquals(UploadJob.Status.FAILED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals(null, savedUrl.get());
+    }
+
+    @Test
+    void failureCallbackRunsWhenTheUploadIsNeverSaved() throws Exception {
+        storage.failuresLeft.set(10);
+        AtomicInteger failed = new AtomicInteger();
+
+        UploadJob gaveUp = uploadService.submit(file("video.mp4"), stored -> { }, null, failed::incrementAndGet);
+        awaitFinished(gaveUp);
+        storage.failuresLeft.set(0);
+        UploadJob notSaved = uploadService.submit(file("lesson.pdf"), stored -> {
+            throw new IllegalStateException("row is gone");
+        }, null, failed::incrementAndGet);
+        awaitFinished(notSaved);
+        UploadJob fine = uploadService.submit(file("notes.pdf"), stored -> { }, null, failed::incrementAndGet);
+        awaitFinished(fine);
+
+        assertEquals(UploadJob.Status.FAILED, gaveUp.getStatus());
+        assertEquals(UploadJob.Status.FAILED, notSaved.getStatus());
+        assertEquals(UploadJob.Status.DONE, fine.getStatus());
+        for (int i = 0; i < 100 && failed.get() < 2; i++) Thread.sleep(10);
+        assertEquals(2, failed.get());
+        // The content the unsaved job stored isn't referenced by anything, so it is gone again
+        // (same bytes as notes.pdf, which took its own reference afterwards)
+        assertEquals(1, blobs.refCounts.values().iterator().next().get());
+    }
+
+    @Test
+    void sameContentIsOnlyStoredOnce() throws Exception {
+        UploadJob first = uploadService.submit(file("it-card.png"), stored -> { });
+        awaitFinished(first);
+        UploadJob second = uploadService.submit(file("it-card (1).png"), stored -> { });
+        awaitFinished(second);
+
+        assertEquals(1, storage.stored.get());
+        assertTrue(second.isDeduplicated());
+        assertEquals(first.getUrl(), second.getUrl());
+        assertEquals(2, blobs.refCounts.values().iterator().next().get());
+
+        // Only the last release removes the object
+        String hash = blobs.refCounts.keySet().iterator().next();
+        uploadService.releaseContent(hash);
+        assertEquals(0, storage.deleted.get());
+        uploadService.releaseContent(hash);
+        assertEquals(1, storage.deleted.get());
+    }
+
+    @Test
+    void spooledFileCanBeTakenOverAfterStoring(@TempDir Path elsewhere) throws Exception {
+        Path target = elsewhere.resolve("lesson.pdf");
+
+        UploadJob job = uploadService.submit(file("lesson.pdf"), stored -> { }, (stored, spooled) -> {
+            try {
+                Files.move(spooled, target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        awaitFinished(job);
+
+        assertEquals(UploadJob.Status.DONE, job.getStatus());
+        assertTrue(awaitEmpty(tempDir), "spool directory should be empty");
+        for (int i = 0; i < 100 && !Files.exists(target); i++) Thread.sleep(10);
+        assertEquals(3, Files.size(target));
+    }
+
+    @Test
+    void chunkedSessionIsAssembledAndClaimedOnce() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> uploadService.openSession("huge.mp4", 2048));
+        UploadSession session = uploadService.openSession("slides.pptx", 10);
+
+        uploadService.appendChunk(session.getId(), 0, new ByteArrayInputStream(new byte[]{0, 1, 2, 3, 4, 5}));
+        // A repeated chunk (client didn't see the first answer) is refused, the offset tells it where to go on
+        assertThrows(IllegalStateException.class,
+                () -> uploadService.appendChunk(session.getId(), 0, new ByteArrayInputStream(new byte[]{0, 1})));
+        assertThrows(IllegalStateException.class, () -> uploadService.submitSession(session.getId(), stored -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadService.appendChunk(session.getId(), 6, new ByteArrayInputStream(new byte[5])));
+
+        uploadService.appendChunk(session.getId(), 6, new ByteArrayInputStream(new byte[]{6, 7, 8, 9}));
+        assertTrue(session.isComplete());
+        UploadJob job = uploadService.submitSession(session.getId(), stored -> { });
+        assertThrows(IllegalArgumentException.class, () -> uploadService.submitSession(session.getId(), stored -> { }));
+        assertNull(uploadService.appendChunk(session.getId(), 10, new ByteArrayInputStream(new byte[0])));
+        awaitFinished(job);
+
+        assertEquals(UploadJob.Status.DONE, job.getStatus());
+        assertEquals(1, storage.stored.get());
+        byte[] content = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        assertEquals(HexFormat.of().formatHex(UploadService.sha256().digest(content)),
+                blobs.refCounts.keySet().iterator().next());
+    }
+
+    @Test
+    void secondChunkIsRefusedWhileOneIsBeingWritten() throws Exception {
+        UploadSession session = uploadService.openSession("video.mp4", 10);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // A client still sending its chunk
+        InputStream slowBody = new InputStream() {
+            @Override public int read() { throw new UnsupportedOperationException(); }
+
+            @Override public int read(byte[] b, int off, int len) {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+        Thread first = Thread.startVirtualThread(() -> {
+            try {
+                uploadService.appendChunk(session.getId(), 0, slowBody);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class,
+                () -> uploadService.appendChunk(session.getId(), 0, new ByteArrayInputStream(new byte[10])));
+        assertThrows(IllegalStateException.class, () -> uploadService.submitSession(session.getId(), stored -> { }));
+        release.countDown();
+        first.join();
+
+        // Still there, and writable again
+        assertEquals(session, uploadService.getSession(session.getId()));
+        uploadService.appendChunk(session.getId(), 0, new ByteArrayInputStream(new byte[10]));
+        assertTrue(session.isComplete());
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("file", name, "application/octet-stream", new byte[]{1, 2, 3});
+    }
+
+    private static void awaitFinished(UploadJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && !job.isFinished(); i++) Thread.sleep(10);
+        assertTrue(job.isFinished(), "upload did not finish in time");
+    }
+
+    // The spooled file is deleted right after the job is marked finished
+    private static boolean awaitEmpty(Path dir) throws IOException, InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try (var files = Files.list(dir)) {
+                if (files.findAny().isEmpty()) return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    static class FakeStorage implements StorageBackend {
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final AtomicInteger stored = new AtomicInteger();
+        final AtomicInteger deleted = new AtomicInteger();
+
+        @Override
+        public StoredObject store(Path file, String originalFilename) throws IOException {
+            if (failuresLeft.getAndDecrement() > 0) throw new IOException("simulated outage");
+            stored.incrementAndGet();
+            return new StoredObject(originalFilename, "fake://" + originalFilename);
+        }
+
+        @Override
+        public void delete(String key) {
+            deleted.incrementAndGet();
+        }
+    }
+
+    // In-memory stand-in for the stored_blobs table
+    static class FakeBlobs extends BlobService {
+        final Map<String, AtomicInteger> refCounts = new ConcurrentHashMap<>();
+        final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+
+        @Override
+        public synchronized StoredObject acquire(String contentHash) {
+            AtomicInteger refs = refCounts.get(contentHash);
+            if (refs == null) return null;
+            refs.incrementAndGet();
+            return objects.get(contentHash);
+        }
+
+        @Override
+        public synchronized StoredObject register(String contentHash, long size, StoredObject stored) {
+            refCounts.put(contentHash, new AtomicInteger(1));
+            objects.put(contentHash, stored.withContentHash(contentHash));
+            return objects.get(contentHash);
+        }
+
+        @Override
+        public synchronized void release(String contentHash, Consumer<String> deleteObject) {
+            AtomicInteger refs = refCounts.get(contentHash);
+            if (refs == null || refs.decrementAndGet() > 0) return;
+            refCounts.remove(contentHash);
+            deleteObject.accept(objects.remove(contentHash).key());
+        }
+    }
+}
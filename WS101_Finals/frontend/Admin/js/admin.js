@@ -5,6 +5,8 @@ let isEditCourseMode = false;
 let isEditSubjectMode = false;
 let selectedCourseId = null; // For Subject Management
 let allLogs = []; // For Activity Logs filtering
+let logsCursor = null; // Cursor for the next page of logs
+let logsFilter = 'all';
 
 // ==========================================
 // 1. INITIALIZATION & NAVIGATION
@@ -163,6 +165,19 @@ async function deleteUser(id) {
 // 3. COURSE MANAGEMENT (With Image Upload)
 // ==========================================
 
+// Picks the smallest resized copy (from a "url 320w, url 640w" srcset) that still covers
+// cssWidth on this screen; falls back to the largest one
+function pickImageVariant(srcset, cssWidth) {
+    if (!srcset) return null;
+    const wanted = cssWidth * (window.devicePixelRatio || 1);
+    const variants = srcset.split(',')
+        .map(entry => entry.trim().split(/\s+/))
+        .map(([url, w]) => ({ url, width: parseInt(w, 10) || 0 }))
+        .sort((a, b) => a.width - b.width);
+    const fit = variants.find(v => v.width >= wanted) || variants[variants.length - 1];
+    return fit ? fit.url.replace('http://', 'https://') : null;
+}
+
 async function loadCourses() {
     try {
         const res = await fetch(`${API_URL}/courses`);
@@ -190,6 +205,9 @@ async function loadCourses() {
                 // 1. Check if it is already a full link (Cloudinary)
                 if (course.image.startsWith('http')) {
                     imageUrl = course.image;
+                } else if (course.image.startsWith('/api/')) {
+                    // Course list only carries a link to the image endpoint
+                    imageUrl = `https://new-ed9m.onrender.com${course.image}`;
                 } else {
                     // 2. Fallback for old local images
                     let cleanImage = course.image;
@@ -201,6 +219,9 @@ async function loadCourses() {
                     imageUrl = `https://new-ed9m.onrender.com/uploads/${cleanImage}`;
                 }
 
+                // Cards are ~320px wide, no need for the full-size picture
+                imageUrl = pickImageVariant(course.imageSrcset, 320) || imageUrl;
+
                 backgroundStyle = `background-image: url('${imageUrl}'); background-size: cover; background-position: center;`;
             }
 
@@ -499,21 +520,37 @@ async function loadActivityLogs() {
     tbody.innerHTML = '<tr><td colspan="4" style="text-align:center;">Loading logs...</td></tr>';
 
     try {
-        const res = await fetch(`${API_URL}/logs`);
-        allLogs = await res.json();
-        renderLogs(allLogs);
+        const res = await fetch(`${API_URL}/logs/page?limit=100`);
+        const page = await res.json();
+        allLogs = page.items;
+        logsCursor = page.nextCursor;
+        filterLogs(logsFilter);
     } catch (err) {
         console.error(err);
         tbody.innerHTML = '<tr><td colspan="4" style="text-align:center; color:red;">Failed to load logs.</td></tr>';
     }
 }
 
+// Fetches the next (older) page of logs and appends it
+async function loadMoreLogs() {
+    if (!logsCursor) return;
+    try {
+        const res = await fetch(`${API_URL}/logs/page?limit=100&after=${encodeURIComponent(logsCursor)}`);
+        const page = await res.json();
+        allLogs = allLogs.concat(page.items);
+        logsCursor = page.nextCursor;
+        filterLogs(logsFilter);
+    } catch (err) {
+        console.error(err);
+    }
+}
+
 function renderLogs(logs) {
     const tbody = document.getElementById('logs-table-body');
     if(!tbody) return;
     tbody.innerHTML = '';
 
-    if (logs.length === 0) {
+    if (logs.length === 0 && !logsCursor) {
         tbody.innerHTML = '<tr><td colspan="4" style="text-align:center;">No activity recorded yet.</td></tr>';
         return;
     }
@@ -538,9 +575,16 @@ function renderLogs(logs) {
         `;
         tbody.appendChild(tr);
     });
+
+    if (logsCursor) {
+        const more = document.createElement('tr');
+        more.innerHTML = '<td colspan="4" style="text-align:center;"><button class="btn-sm" onclick="loadMoreLogs()">Load older logs</button></td>';
+        tbody.appendChild(more);
+    }
 }
 
 function filterLogs(filterType) {
+    logsFilter = filterType;
     // Update UI Active State
     document.querySelectorAll('.log-filters .btn-sm').forEach(btn => {
         btn.classList.remove('active');
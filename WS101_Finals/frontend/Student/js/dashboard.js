@@ -24,17 +24,20 @@ document.addEventListener("DOMContentLoaded", () => {
         return;
     }
 
-    // 2. LOAD COURSE INFO
+    // 2. LOAD COURSE INFO (course, subjects, modules and materials in one call)
     console.log("Fetching Course:", courseId);
-    fetch(`https://new-ed9m.onrender.com/api/courses/${courseId}`)
+    fetch(`https://new-ed9m.onrender.com/api/student/home?courseId=${encodeURIComponent(courseId)}`)
         .then(r => {
             if (!r.ok) throw new Error("Course ID '" + courseId + "' not found in Database.");
             return r.json();
         })
-        .then(data => {
+        .then(home => {
             const titleEl = document.getElementById('dashboard-title');
-            if(titleEl) titleEl.innerText = data.title;
-            fetchSubjects(courseId);
+            if(titleEl) titleEl.innerText = home.course.title;
+
+            allSubjects = home.subjects.map(entry => entry.subject);
+            console.log("Subjects Loaded:", allSubjects);
+            applyFilter();
         })
         .catch(e => {
             console.error("Error loading course:", e);
@@ -53,20 +56,6 @@ document.addEventListener("DOMContentLoaded", () => {
     loadUserProfile();
 });
 
-// ==========================================
-// 2. DATA FETCHING
-// ==========================================
-function fetchSubjects(cId) {
-    fetch(`https://new-ed9m.onrender.com/api/courses/${cId}/subjects`)
-        .then(r => r.json())
-        .then(subjects => {
-            console.log("Subjects Loaded:", subjects);
-            allSubjects = subjects;
-            applyFilter();
-        })
-        .catch(e => console.error("Error loading subjects:", e));
-}
-
 // ==========================================
 // 3. RENDERING CARDS
 // ==========================================
@@ -281,6 +270,13 @@ function loadUserProfile() {
 
         if (navImg) {
             navImg.src = imgUrl;
+            // Resized copies, if the server has made them yet; the nav avatar is tiny
+            if (user.profileImageSrcset) {
+                navImg.srcset = user.profileImageSrcset;
+                navImg.sizes = '48px';
+            } else {
+                navImg.removeAttribute('srcset');
+            }
             navImg.style.display = 'block';
             if(navPlaceholder) navPlaceholder.style.display = 'none';
         }
@@ -337,7 +333,11 @@ window.saveProfileChanges = async function() {
             });
             if (res.ok) {
                 const data = await res.json();
-                user.profileImage = data.image;
+                const job = await waitForUpload(data.jobId);
+                if (job.status === 'DONE') {
+                    user.profileImage = job.url;
+                    user.profileImageSrcset = null; // the copies of the old photo
+                }
             }
         }
 
@@ -373,3 +373,16 @@ window.saveProfileChanges = async function() {
         }
     }
 };
+
+// Uploads finish in the background; poll the job until it is done or failed
+async function waitForUpload(jobId) {
+    for (let i = 0; i < 120; i++) {
+        const res = await fetch(`https://new-ed9m.onrender.com/api/uploads/${jobId}`);
+        if (res.ok) {
+            const job = await res.json();
+            if (job.status === 'DONE' || job.status === 'FAILED') return job;
+        }
+        await new Promise(resolve => setTimeout(resolve, 1000));
+    }
+    return { status: 'FAILED' };
+}
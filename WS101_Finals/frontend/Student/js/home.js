@@ -18,6 +18,19 @@ const API_URL = "https://new-ed9m.onrender.com/api/admin/courses";
 // ==========================================
 // 2. DATA FETCHING
 // ==========================================
+// Picks the smallest resized copy (from a "url 320w, url 640w" srcset) that still covers
+// cssWidth on this screen; falls back to the largest one
+function pickImageVariant(srcset, cssWidth) {
+    if (!srcset) return null;
+    const wanted = cssWidth * (window.devicePixelRatio || 1);
+    const variants = srcset.split(',')
+        .map(entry => entry.trim().split(/\s+/))
+        .map(([url, w]) => ({ url, width: parseInt(w, 10) || 0 }))
+        .sort((a, b) => a.width - b.width);
+    const fit = variants.find(v => v.width >= wanted) || variants[variants.length - 1];
+    return fit ? fit.url.replace('http://', 'https://') : null;
+}
+
 async function fetchCourses() {
     try {
         const response = await fetch(API_URL);
@@ -33,6 +46,9 @@ async function fetchCourses() {
             // Image Logic (Cloudinary vs Local)
             if (imgPart.startsWith('http')) {
                 finalUrl = imgPart.replace('http://', 'https://');
+            } else if (imgPart.startsWith('/api/')) {
+                // Course list only carries a link to the image endpoint
+                finalUrl = `https://new-ed9m.onrender.com${imgPart}`;
             } else {
                 if (imgPart.startsWith('uploads/') || imgPart.startsWith('uploads\\')) {
                     imgPart = imgPart.substring(8);
@@ -41,6 +57,10 @@ async function fetchCourses() {
                 finalUrl = imgPart ? `${IMG_BASE_URL}${imgPart}` : 'https://via.placeholder.com/280x350?text=No+Image';
             }
 
+            // Cards are 280px wide; the big background is the width of the screen
+            const cardUrl = pickImageVariant(c.imageSrcset, 280) || finalUrl;
+            const bgUrl = pickImageVariant(c.imageSrcset, window.innerWidth) || finalUrl;
+
             const color = c.themeColor || '#3b82f6';
             const darkerColor = adjustBrightness(color, -50);
 
@@ -54,13 +74,13 @@ async function fetchCourses() {
                             // We put the linear-gradient FIRST so it sits ON TOP of the image
                             cardStyle: `background-color: ${color};
                                         background-image: linear-gradient(to bottom, rgba(0,0,0,0) 50%, rgba(0,0,0,0.9) 100%),
-                                                          url('${finalUrl}');
+                                                          url('${cardUrl}');
                                         background-size: cover; background-position: center;`,
 
                             // ✅ FIX 2: BIG BACKGROUND (Text is on the left, so we add a dark fade on the left)
                             bgStyle: `background-color: #000;
                                       background-image: linear-gradient(to right, rgba(0,0,0,0.9) 0%, rgba(0,0,0,0.4) 100%),
-                                                        url('${finalUrl}');
+                                                        url('${bgUrl}');
                                       background-size: cover; background-position: center;`
                         };
         });
@@ -59,6 +59,13 @@ function loadUserProfile(user) {
 
         if (sidebarImg) {
             sidebarImg.src = imgUrl;
+            // Resized copies, if the server has made them yet
+            if (user.profileImageSrcset) {
+                sidebarImg.srcset = user.profileImageSrcset;
+                sidebarImg.sizes = '64px';
+            } else {
+                sidebarImg.removeAttribute('srcset');
+            }
             sidebarImg.style.display = 'block';
             if (sidebarPlaceholder) sidebarPlaceholder.style.display = 'none';
         }
@@ -71,6 +78,7 @@ function updateSidebarImage(src) {
     const img = document.getElementById('sidebar-profile-img');
     const placeholder = document.getElementById('sidebar-profile-placeholder');
     if (img && placeholder) {
+        img.removeAttribute('srcset'); // would still point at the old photo
         img.src = src;
         img.style.display = 'block';
         placeholder.style.display = 'none';
@@ -126,8 +134,12 @@ async function saveProfileChanges() {
             });
             if (res.ok) {
                 const data = await res.json();
-                user.profileImage = data.image;
-                updateSidebarImage(`https://new-ed9m.onrender.com/uploads/${data.image}`);
+                const job = await waitForUpload(data.jobId);
+                if (job.status === 'DONE') {
+                    user.profileImage = job.url;
+                    user.profileImageSrcset = null; // the copies of the old photo
+                    updateSidebarImage(job.url);
+                }
             }
         } catch (err) { console.error(err); }
     }
@@ -396,7 +408,15 @@ function setupEventListeners(user) {
             }
 
             const formData = new FormData();
-            formData.append('file', fileInput.files[0]);
+            const selected = fileInput.files[0];
+            if (selected.size > CHUNKED_UPLOAD_THRESHOLD) {
+                // Large videos/slide decks go up in resumable chunks first
+                try {
+                    formData.append('uploadSession', await uploadInChunks(selected));
+                } catch (err) { return alert("Upload failed: " + err.message); }
+            } else {
+                formData.append('file', selected);
+            }
             formData.append('title', document.getElementById('lessonTitle').value);
             formData.append('subjectCode', subjectSelect.value);
             if (finalModuleId) formData.append('moduleId', finalModuleId);
@@ -491,3 +511,62 @@ window.deleteModule = async function(moduleId, subjectCode) {
         alert("Server Error");
     }
 };
+
+// Uploads finish in the background; poll the job until it is done or failed
+async function waitForUpload(jobId) {
+    for (let i = 0; i < 120; i++) {
+        const res = await fetch(`https://new-ed9m.onrender.com/api/uploads/${jobId}`);
+        if (res.ok) {
+            const job = await res.json();
+            if (job.status === 'DONE' || job.status === 'FAILED') return job;
+        }
+        await new Promise(resolve => setTimeout(resolve, 1000));
+    }
+    return { status: 'FAILED' };
+}
+
+// ==========================================
+// CHUNKED UPLOADS (files bigger than CHUNKED_UPLOAD_THRESHOLD)
+// ==========================================
+const CHUNKED_UPLOAD_THRESHOLD = 8 * 1024 * 1024;
+const UPLOAD_CHUNK_SIZE = 5 * 1024 * 1024;
+
+// Sends the file in chunks and returns the upload session id; a failed chunk is retried
+// from the offset the server reports, so a dropped connection doesn't restart the upload
+async function uploadInChunks(file) {
+    const base = 'https://new-ed9m.onrender.com/api/uploads/sessions';
+    const openRes = await fetch(base, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ filename: file.name, size: file.size })
+    });
+    if (!openRes.ok) throw new Error(await openRes.text());
+    const session = await openRes.json();
+
+    let offset = 0;
+    let failures = 0;
+    while (offset < file.size) {
+        try {
+            const chunk = file.slice(offset, offset + UPLOAD_CHUNK_SIZE);
+            const res = await fetch(`${base}/${session.id}?offset=${offset}`, {
+                method: 'PUT',
+                headers: { 'Content-Type': 'application/octet-stream' },
+                body: chunk
+            });
+            if (!res.ok && res.status !== 409) throw new Error(await res.text());
+            if (res.ok) {
+                offset = (await res.json()).offset;
+                failures = 0;
+                continue;
+            }
+        } catch (err) {
+            if (++failures > 5) throw err;
+            await new Promise(resolve => setTimeout(resolve, 1000 * failures));
+        }
+        // Ask the server how much it actually has and carry on from there
+        const statusRes = await fetch(`${base}/${session.id}`);
+        if (!statusRes.ok) throw new Error("Upload session lost");
+        offset = (await statusRes.json()).offset;
+    }
+    return session.id;
+}
@@ -0,0 +1,31 @@
+// ==========================================
+// LOGIN TOKEN FOR API CALLS
+// ==========================================
+// Sends the token from the login response ("Authorization: Bearer ...") with every call to
+// the backend, so the server knows who is calling without looking the user up.
+// Load this before the page's own script.
+(function () {
+    const API_ORIGIN = 'https://new-ed9m.onrender.com';
+    const nativeFetch = window.fetch.bind(window);
+
+    window.fetch = async function (input, init = {}) {
+        const url = typeof input === 'string' ? input : input.url;
+        const user = JSON.parse(localStorage.getItem('user') || 'null');
+        const sendToken = user && user.token && url.startsWith(API_ORIGIN + '/api/');
+
+        if (sendToken) {
+            const headers = new Headers(init.headers || (typeof input === 'string' ? undefined : input.headers));
+            if (!headers.has('Authorization')) headers.set('Authorization', 'Bearer ' + user.token);
+            init = { ...init, headers };
+        }
+
+        const response = await nativeFetch(input, init);
+
+        // Token expired (or keys rotated): log in again
+        if (sendToken && response.status === 401) {
+            localStorage.removeItem('user');
+            window.location.href = '../Student/login.html';
+        }
+        return response;
+    };
+})();